@@ -0,0 +1,60 @@
+package org.example.qnrassignment.core.exceptions;
+
+import org.example.qnrassignment.controller.OrderController;
+import org.example.qnrassignment.dto.CreateOrderDTO;
+import org.example.qnrassignment.security.AuthenticatedUser;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building and serializing the error bodies returned by
+ * {@link GlobalExceptionHandler} for the most frequent client errors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private ResourceNotFoundException notFound;
+    private IllegalArgumentException badRequest;
+    private MethodArgumentNotValidException invalidBody;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        notFound = new ResourceNotFoundException("Order", "id", 42L);
+        badRequest = new IllegalArgumentException("Invalid order status: SHIPPED");
+
+        CreateOrderDTO createOrderDTO = new CreateOrderDTO();
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(createOrderDTO, "createOrderDTO");
+        bindingResult.rejectValue("description", "NotBlank", "Description is required.");
+        bindingResult.rejectValue("status", "NotBlank", "Status is required.");
+        MethodParameter parameter = new MethodParameter(OrderController.class.getMethod(
+                "createOrder", CreateOrderDTO.class, AuthenticatedUser.class), 0);
+        invalidBody = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public byte[] notFound() {
+        return jsonMapper.writeValueAsBytes(handler.handleResourceNotFoundException(notFound).getBody());
+    }
+
+    @Benchmark
+    public byte[] illegalArgument() {
+        return jsonMapper.writeValueAsBytes(handler.handleIllegalArgumentException(badRequest).getBody());
+    }
+
+    @Benchmark
+    public byte[] validationErrors() {
+        return jsonMapper.writeValueAsBytes(handler.handleValidationExceptions(invalidBody).getBody());
+    }
+}
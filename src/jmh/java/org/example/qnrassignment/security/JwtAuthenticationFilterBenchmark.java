@@ -0,0 +1,88 @@
+package org.example.qnrassignment.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.qnrassignment.core.enums.Role;
+import org.example.qnrassignment.model.User;
+import org.example.qnrassignment.repository.BlacklistTokenRepo;
+import org.example.qnrassignment.service.TokenBlacklistService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Full decision path of {@link JwtAuthenticationFilter} for one request:
+ * revocation check, token verification and principal construction, with
+ * the user lookup served in memory as it would be from the users cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean statelessPrincipal;
+
+    private JwtAuthenticationFilter filter;
+    private String token;
+    private String revokedToken;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService(JwtVerificationBenchmark.SECRET, 3_600_000);
+        User user = User.builder()
+                .id(1L)
+                .username("benchmark_user")
+                .password("secret")
+                .role(Role.USER)
+                .build();
+        UserDetailsService userDetailsService = username -> user;
+
+        TokenRevocationCache revocationCache = new TokenRevocationCache(100_000, 100_000, 0.01);
+        revocationCache.rebuild(Map::of);
+        TokenBlacklistService tokenBlacklistService =
+                new TokenBlacklistService(mock(BlacklistTokenRepo.class), revocationCache, event -> { });
+
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, tokenBlacklistService,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "statelessPrincipal", statelessPrincipal);
+
+        token = jwtService.generateToken(user.getId(), user.getUsername(), user.getRole().name());
+        revokedToken = jwtService.generateToken(2L, "revoked_user", Role.USER.name());
+        revocationCache.revoke(TokenDigest.sha256Hex(revokedToken), Instant.now().plusSeconds(3600));
+    }
+
+    @Benchmark
+    public int validToken() throws Exception {
+        return filter(token);
+    }
+
+    @Benchmark
+    public int revokedToken() throws Exception {
+        return filter(revokedToken);
+    }
+
+    private int filter(String bearerToken) throws Exception {
+        // The filter only authenticates requests that are not authenticated yet
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.setServletPath("/api/orders");
+        request.addHeader("Authorization", "Bearer " + bearerToken);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
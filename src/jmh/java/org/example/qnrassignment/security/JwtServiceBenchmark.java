@@ -0,0 +1,50 @@
+package org.example.qnrassignment.security;
+
+import org.example.qnrassignment.core.enums.Role;
+import org.example.qnrassignment.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the individual {@link JwtService} operations used at login and on
+ * every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(JwtVerificationBenchmark.SECRET, 3_600_000);
+        user = User.builder()
+                .id(1L)
+                .username("benchmark_user")
+                .password("secret")
+                .role(Role.USER)
+                .build();
+        token = jwtService.generateToken(user.getId(), user.getUsername(), user.getRole().name());
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user.getId(), user.getUsername(), user.getRole().name());
+    }
+
+    @Benchmark
+    public String extractSubject() {
+        return jwtService.extractSubject(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, user);
+    }
+}
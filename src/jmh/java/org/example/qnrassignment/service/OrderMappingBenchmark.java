@@ -0,0 +1,81 @@
+package org.example.qnrassignment.service;
+
+import org.example.qnrassignment.core.enums.OrderStatus;
+import org.example.qnrassignment.core.enums.Role;
+import org.example.qnrassignment.dto.OrderDTO;
+import org.example.qnrassignment.model.Order;
+import org.example.qnrassignment.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Cost of turning a page of orders into a response body: entity to DTO
+ * mapping and Jackson serialization of the resulting {@link Page}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    @Param({"10", "100"})
+    public int pageSize;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private List<Order> orders;
+    private Page<OrderDTO> page;
+
+    @Setup
+    public void setUp() {
+        User owner = User.builder()
+                .id(1L)
+                .username("benchmark_user")
+                .password("secret")
+                .role(Role.USER)
+                .build();
+        LocalDateTime now = LocalDateTime.now();
+        orders = IntStream.range(0, pageSize)
+                .mapToObj(i -> {
+                    Order order = Order.builder()
+                            .id((long) i)
+                            .description("Benchmark order number " + i)
+                            .status(OrderStatus.values()[i % OrderStatus.values().length])
+                            .user(owner)
+                            .build();
+                    order.setCreatedAt(now.minusMinutes(i));
+                    order.setUpdatedAt(now);
+                    return order;
+                })
+                .toList();
+        page = mapPage();
+    }
+
+    @Benchmark
+    public Page<OrderDTO> mapPage() {
+        return new PageImpl<>(
+                orders.stream().map(OrderService::mapToDTO).toList(),
+                PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "createdAt")),
+                10_000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializePage() {
+        return jsonMapper.writeValueAsBytes(mapPage());
+    }
+}
@@ -0,0 +1,274 @@
+package org.example.qnrassignment.loadtest;
+
+import org.example.qnrassignment.QnrAssignmentApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Boots the application on an in-memory database and drives mixed API
+ * traffic against it, then reports throughput and latency percentiles
+ * per endpoint. Every worker owns one user: it registers, seeds orders
+ * and then runs a weighted mix of order and authentication calls.
+ * Settings are read from {@code loadTest.*} system properties, see the
+ * {@code loadTest} Gradle task.
+ */
+public final class LoadTest {
+    private static final String[] WORDS = {"alpha", "bravo", "charlie", "delta", "echo", "foxtrot"};
+    private static final String[] STATUSES = {"PENDING", "PROCESSING", "COMPLETED", "CANCELLED"};
+    private static final String PASSWORD = "load-test-password";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final String baseUrl;
+    private final int ordersPerUser;
+    private final long warmupEnd;
+    private final long end;
+
+    private LoadTest(String baseUrl, int ordersPerUser, long warmupEnd, long end) {
+        this.baseUrl = baseUrl;
+        this.ordersPerUser = ordersPerUser;
+        this.warmupEnd = warmupEnd;
+        this.end = end;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("loadTest.concurrency", 32);
+        int ordersPerUser = Integer.getInteger("loadTest.ordersPerUser", 50);
+        Duration warmup = Duration.parse(System.getProperty("loadTest.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("loadTest.duration", "PT60S"));
+        String profiles = System.getProperty("loadTest.profiles", "");
+        Path reportFile = Path.of(System.getProperty("loadTest.reportFile", "build/reports/loadtest/results.csv"));
+
+        List<String> activeProfiles = new ArrayList<>(List.of("loadtest"));
+        for (String profile : profiles.split(",")) {
+            if (!profile.isBlank()) {
+                activeProfiles.add(profile.trim());
+            }
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(QnrAssignmentApplication.class)
+                .profiles(activeProfiles.toArray(String[]::new))
+                .run(args)) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            System.out.printf("Application started on port %d with profiles %s%n", port, activeProfiles);
+            System.out.printf("Running %d workers: %s warm-up, %s measured%n", concurrency, warmup, duration);
+
+            long start = System.nanoTime();
+            long warmupEnd = start + warmup.toNanos();
+            LoadTest loadTest = new LoadTest("http://localhost:" + port, ordersPerUser,
+                    warmupEnd, warmupEnd + duration.toNanos());
+
+            Map<String, LatencySamples> results = loadTest.run(concurrency);
+            report(results, duration, reportFile);
+        }
+    }
+
+    private Map<String, LatencySamples> run(int concurrency) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<Map<String, LatencySamples>>> workers = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                Worker worker = new Worker("load_user_" + i);
+                workers.add(executor.submit(worker::run));
+            }
+
+            Map<String, LatencySamples> merged = new TreeMap<>();
+            for (Future<Map<String, LatencySamples>> worker : workers) {
+                worker.get().forEach((endpoint, samples) ->
+                        merged.computeIfAbsent(endpoint, key -> new LatencySamples()).addAll(samples));
+            }
+            return merged;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private final class Worker {
+        private final String username;
+        private final Map<String, LatencySamples> samples = new HashMap<>();
+        private final List<Long> orderIds = new ArrayList<>();
+        private String token;
+
+        private Worker(String username) {
+            this.username = username;
+        }
+
+        private Map<String, LatencySamples> run() throws Exception {
+            token = (String) call("POST /api/auth/register", "POST", "/api/auth/register",
+                    Map.of("username", username, "password", PASSWORD, "role", "USER")).get("token");
+            seed();
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < end) {
+                int roll = random.nextInt(100);
+                if (roll < 30) {
+                    call("GET /api/orders", "GET", "/api/orders?page=" + random.nextInt(3) + "&size=20", null);
+                } else if (roll < 45) {
+                    createOrder(random);
+                } else if (roll < 60) {
+                    call("GET /api/orders/search", "GET", "/api/orders/search?query=" + WORDS[random.nextInt(WORDS.length)], null);
+                } else if (roll < 75) {
+                    updateOrder(random);
+                } else if (roll < 85) {
+                    deleteOrder(random);
+                } else if (roll < 95) {
+                    login();
+                } else {
+                    call("POST /api/auth/logout", "POST", "/api/auth/logout", null);
+                    login();
+                }
+            }
+            return samples;
+        }
+
+        private void seed() throws Exception {
+            List<Map<String, String>> orders = new ArrayList<>();
+            for (int i = 0; i < ordersPerUser; i++) {
+                orders.add(Map.of("description", description(i), "status", STATUSES[i % STATUSES.length]));
+            }
+            Map<String, Object> result = call("POST /api/orders/batch", "POST", "/api/orders/batch", orders);
+            for (Object item : (List<?>) result.getOrDefault("results", List.of())) {
+                Object order = ((Map<?, ?>) item).get("order");
+                if (order != null) {
+                    orderIds.add(((Number) ((Map<?, ?>) order).get("id")).longValue());
+                }
+            }
+        }
+
+        private void createOrder(ThreadLocalRandom random) throws Exception {
+            Map<String, Object> order = call("POST /api/orders", "POST", "/api/orders",
+                    Map.of("description", description(random.nextInt(1_000_000)), "status", "PENDING"));
+            if (order.get("id") instanceof Number id) {
+                orderIds.add(id.longValue());
+            }
+        }
+
+        private void updateOrder(ThreadLocalRandom random) throws Exception {
+            if (orderIds.isEmpty()) {
+                createOrder(random);
+                return;
+            }
+            long id = orderIds.get(random.nextInt(orderIds.size()));
+            call("PUT /api/orders/{id}", "PUT", "/api/orders/" + id, Map.of(
+                    "description", description(random.nextInt(1_000_000)),
+                    "status", STATUSES[random.nextInt(STATUSES.length)]));
+        }
+
+        private void deleteOrder(ThreadLocalRandom random) throws Exception {
+            if (orderIds.isEmpty()) {
+                createOrder(random);
+                return;
+            }
+            long id = orderIds.remove(random.nextInt(orderIds.size()));
+            call("DELETE /api/orders/{id}", "DELETE", "/api/orders/" + id, null);
+        }
+
+        private void login() throws Exception {
+            Object newToken = call("POST /api/auth/login", "POST", "/api/auth/login",
+                    Map.of("username", username, "password", PASSWORD)).get("token");
+            if (newToken != null) {
+                token = (String) newToken;
+            }
+        }
+
+        private Map<String, Object> call(String endpoint, String method, String path, Object body) throws Exception {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Accept", "application/json");
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+            if (body != null) {
+                request.header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofByteArray(jsonMapper.writeValueAsBytes(body)));
+            } else {
+                request.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+
+            long started = System.nanoTime();
+            HttpResponse<String> response;
+            try {
+                response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                record(endpoint, started, System.nanoTime() - started, false);
+                return Map.of();
+            }
+            long elapsed = System.nanoTime() - started;
+            boolean success = response.statusCode() < 400;
+            record(endpoint, started, elapsed, success);
+
+            String responseBody = response.body();
+            if (!success || responseBody == null || !responseBody.startsWith("{")) {
+                return Map.of();
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> json = jsonMapper.readValue(responseBody, Map.class);
+            return json;
+        }
+
+        private void record(String endpoint, long started, long elapsed, boolean success) {
+            // Only calls started inside the measured window count
+            if (started >= warmupEnd && started < end) {
+                samples.computeIfAbsent(endpoint, key -> new LatencySamples()).record(elapsed, success);
+            }
+        }
+    }
+
+    private static String description(int number) {
+        return "Load test order " + number + " " + WORDS[number % WORDS.length];
+    }
+
+    private static void report(Map<String, LatencySamples> results, Duration duration, Path reportFile) throws IOException {
+        double seconds = duration.toMillis() / 1000.0;
+        String header = "endpoint,requests,errors,throughput_rps,p50_ms,p95_ms,p99_ms,p999_ms,max_ms";
+
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(reportFile))) {
+            csv.println(header);
+            System.out.printf("%n%-28s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+
+            LatencySamples total = new LatencySamples();
+            for (Map.Entry<String, LatencySamples> entry : results.entrySet()) {
+                total.addAll(entry.getValue());
+                printRow(csv, entry.getKey(), entry.getValue(), seconds);
+            }
+            printRow(csv, "TOTAL", total, seconds);
+        }
+        System.out.printf("%nResults written to %s%n", reportFile.toAbsolutePath());
+    }
+
+    private static void printRow(PrintWriter csv, String endpoint, LatencySamples samples, double seconds) {
+        long[] sorted = samples.sorted();
+        double throughput = samples.count() / seconds;
+        double p50 = LatencySamples.percentileMillis(sorted, 50);
+        double p95 = LatencySamples.percentileMillis(sorted, 95);
+        double p99 = LatencySamples.percentileMillis(sorted, 99);
+        double p999 = LatencySamples.percentileMillis(sorted, 99.9);
+        double max = LatencySamples.percentileMillis(sorted, 100);
+
+        System.out.printf("%-28s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                endpoint, samples.count(), samples.errors(), throughput, p50, p95, p99, p999, max);
+        csv.printf(Locale.ROOT, "\"%s\",%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                endpoint, samples.count(), samples.errors(), throughput, p50, p95, p99, p999, max);
+    }
+}
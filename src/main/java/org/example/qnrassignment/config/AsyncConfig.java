@@ -0,0 +1,40 @@
+package org.example.qnrassignment.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Runs streamed MVC responses (the order export is the only one) on their
+ * own bounded pool instead of the shared application task executor, so
+ * long exports cannot take the threads other async work needs.
+ * The pool is not a bean, which would make Boot back off from creating
+ * the application task executor.
+ */
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer, DisposableBean {
+    private final ThreadPoolTaskExecutor exportExecutor = new ThreadPoolTaskExecutor();
+
+    public AsyncConfig(@Value("${orders.export.max-concurrent:4}") int maxConcurrentExports) {
+        exportExecutor.setThreadNamePrefix("order-export-");
+        exportExecutor.setCorePoolSize(maxConcurrentExports);
+        exportExecutor.setMaxPoolSize(maxConcurrentExports);
+        // OrderExportService admits at most maxConcurrentExports; the queue only
+        // absorbs a new export starting while a finishing one still holds its thread
+        exportExecutor.setQueueCapacity(maxConcurrentExports);
+        exportExecutor.initialize();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(exportExecutor);
+    }
+
+    @Override
+    public void destroy() {
+        exportExecutor.shutdown();
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.qnrassignment.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables Spring's cache abstraction. Caches are backed by Caffeine and
+ * configured through the {@code spring.cache.*} properties.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -1,7 +1,16 @@
 package org.example.qnrassignment.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.example.qnrassignment.core.enums.Role;
+import org.example.qnrassignment.metrics.ServerTimingHeaderFilter;
+import org.example.qnrassignment.security.ConcurrencyLimitFilter;
 import org.example.qnrassignment.security.JwtAuthenticationFilter;
+import org.example.qnrassignment.security.OffloadingPasswordEncoder;
+import org.example.qnrassignment.security.RateLimitFilter;
+import org.example.qnrassignment.security.TimedPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -27,7 +36,23 @@ public class SecurityConfig {
 
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+    private final ServerTimingHeaderFilter serverTimingHeaderFilter;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.password-hashing.offload:false}")
+    private boolean offloadPasswordHashing;
+
+    @Value("${security.password-hashing.threads:0}")
+    private int passwordHashingThreads;
+
+    @Value("${security.password-hashing.queue-capacity:100}")
+    private int passwordHashingQueueCapacity;
+
+    @Value("${management.server.port:-1}")
+    private int managementPort;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -39,6 +64,10 @@ public class SecurityConfig {
                                 "/h2-console/**",         // H2 Database Console
                                 "/error"                  // Error endpoint
                         ).permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers(this::isPrometheusScrape).permitAll()
+                        // Metrics reveal traffic, and the caches endpoint can evict for everyone
+                        .requestMatchers("/actuator/**").hasAuthority(Role.ADMIN.name())
                         .anyRequest().authenticated()
                 )
 
@@ -49,6 +78,9 @@ public class SecurityConfig {
                 .authenticationProvider(authenticationProvider())
 
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(concurrencyLimitFilter, JwtAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
+                .addFilterAfter(serverTimingHeaderFilter, RateLimitFilter.class)
 
                 .headers(headers -> headers
                         .frameOptions(frameOptions -> frameOptions.sameOrigin())
@@ -57,6 +89,16 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Prometheus scrapes without a bearer token, so the endpoint is only open on the
+     * management port, which is bound to a local or private address.
+     */
+    private boolean isPrometheusScrape(HttpServletRequest request) {
+        return managementPort > 0
+                && request.getLocalPort() == managementPort
+                && "/actuator/prometheus".equals(request.getRequestURI());
+    }
+
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(userDetailsService);
@@ -66,7 +108,10 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        PasswordEncoder encoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
+        return offloadPasswordHashing
+                ? new OffloadingPasswordEncoder(encoder, passwordHashingThreads, passwordHashingQueueCapacity)
+                : encoder;
     }
 
     @Bean
@@ -2,41 +2,73 @@ package org.example.qnrassignment.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.qnrassignment.core.exceptions.ServiceUnavailableException;
 import org.example.qnrassignment.dto.CreateOrderDTO;
+import org.example.qnrassignment.dto.CursorPageDTO;
+import org.example.qnrassignment.dto.OrderBatchResultDTO;
 import org.example.qnrassignment.dto.OrderDTO;
+import org.example.qnrassignment.dto.OrderSummaryDTO;
 import org.example.qnrassignment.dto.UpdateOrderDTO;
-import org.example.qnrassignment.model.User;
+import org.example.qnrassignment.feed.OrderChangeFeed;
+import org.example.qnrassignment.security.AuthenticatedUser;
+import org.example.qnrassignment.security.JwtService;
+import org.example.qnrassignment.security.TokenDigest;
+import org.example.qnrassignment.security.VerifiedToken;
+import org.example.qnrassignment.service.OrderBatchService;
+import org.example.qnrassignment.service.OrderExportService;
 import org.example.qnrassignment.service.OrderService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.util.List;
 
 @Controller
 @RequestMapping("api/orders")
 @RequiredArgsConstructor
 public class OrderController {
     private final OrderService orderService;
+    private final OrderBatchService orderBatchService;
+    private final OrderExportService orderExportService;
+    private final OrderChangeFeed orderChangeFeed;
+    private final JwtService jwtService;
 
     @PostMapping
     public ResponseEntity<OrderDTO> createOrder(@Valid @RequestBody CreateOrderDTO createOrderDTO,
-                                                @AuthenticationPrincipal User user) {
+                                                @AuthenticationPrincipal AuthenticatedUser user) {
         OrderDTO createdOrder = orderService.createOrder(createOrderDTO, user);
         return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<OrderBatchResultDTO> createOrders(InputStream requestBody,
+                                                            @AuthenticationPrincipal AuthenticatedUser user) {
+        // Read item by item so an oversized batch is rejected before it is bound
+        List<CreateOrderDTO> createOrderDTOs = orderBatchService.readBatch(requestBody);
+        OrderBatchResultDTO result = orderBatchService.createOrders(createOrderDTOs, user);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping
     public ResponseEntity<Page<OrderDTO>> getUserOrders(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String direction,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
 
         Sort.Direction sortDirection = direction.equalsIgnoreCase("asc")
                 ? Sort.Direction.ASC
@@ -45,25 +77,99 @@ public class OrderController {
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
         Page<OrderDTO> orders = orderService.getUserOrders(user, pageable);
 
-        return ResponseEntity.ok(orders);
+        return pageResponse(orders);
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDTO<OrderDTO>> getUserOrdersByCursor(
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+
+        Sort.Direction sortDirection = direction.equalsIgnoreCase("asc")
+                ? Sort.Direction.ASC
+                : Sort.Direction.DESC;
+
+        CursorPageDTO<OrderDTO> orders = orderService.getUserOrders(user, cursor, size, sortBy, sortDirection);
+
+        return cursorPageResponse(orders);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+
+        OrderExportService.Format exportFormat = OrderExportService.Format.from(format);
+        if (!orderExportService.tryReserveSlot()) {
+            throw new ServiceUnavailableException("Too many exports are running, please retry later");
+        }
+        StreamingResponseBody body = outputStream -> {
+            try {
+                orderExportService.exportOrders(user, exportFormat, outputStream);
+            } finally {
+                orderExportService.releaseSlot();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("orders." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                         @RequestHeader(HttpHeaders.AUTHORIZATION) String authorizationHeader,
+                                         @AuthenticationPrincipal AuthenticatedUser user) {
+        // The request was authenticated by JwtAuthenticationFilter, so the header carries a valid bearer token
+        String token = authorizationHeader.substring(7);
+        VerifiedToken verifiedToken = jwtService.verify(token);
+        return orderChangeFeed.subscribe(user.getId(), TokenDigest.sha256Hex(token), verifiedToken.expiresAt(),
+                lastEventId);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<OrderSummaryDTO> getOrderSummary(@AuthenticationPrincipal AuthenticatedUser user) {
+        OrderSummaryDTO summary = orderService.getOrderSummary(user);
+        return ResponseEntity.ok(summary);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<OrderDTO> getOrderById(@PathVariable Long id, @AuthenticationPrincipal User user) {
+    public ResponseEntity<OrderDTO> getOrderById(@PathVariable Long id,
+                                                 @AuthenticationPrincipal AuthenticatedUser user,
+                                                 WebRequest request) {
+        // A revalidation only needs the version, not the order itself
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null &&
+                request.checkNotModified(OrderETags.strong(id, orderService.getOrderVersion(id, user)))) {
+            return null;
+        }
+
         OrderDTO orderDTO = orderService.getOrderById(id, user);
-        return ResponseEntity.ok(orderDTO);
+        return ResponseEntity.ok()
+                .eTag(OrderETags.strong(orderDTO))
+                .body(orderDTO);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<OrderDTO> updateOrder(@PathVariable Long id,
                                                 @Valid @RequestBody UpdateOrderDTO updateOrderDTO,
-                                                @AuthenticationPrincipal User user) {
-        OrderDTO updatedOrder = orderService.updateOrder(id, updateOrderDTO, user);
-        return ResponseEntity.ok(updatedOrder);
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                @AuthenticationPrincipal AuthenticatedUser user) {
+        Long expectedVersion = OrderETags.expectedVersion(ifMatch, id);
+        OrderDTO updatedOrder = orderService.updateOrder(id, updateOrderDTO, user, expectedVersion);
+        return ResponseEntity.ok()
+                .eTag(OrderETags.strong(updatedOrder))
+                .body(updatedOrder);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteOrder(@PathVariable Long id, @AuthenticationPrincipal User user) {
+    public ResponseEntity<Void> deleteOrder(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user) {
         orderService.deleteOrder(id, user);
         return ResponseEntity.noContent().build();
     }
@@ -73,13 +179,25 @@ public class OrderController {
             @PathVariable String status,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
 
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
         Page<OrderDTO> orders = orderService.getOrdersByStatus(user, status, pageable);
 
-        return ResponseEntity.ok(orders);
+        return pageResponse(orders);
+    }
+
+    @GetMapping(value = "status/{status}", params = "cursor")
+    public ResponseEntity<CursorPageDTO<OrderDTO>> getOrdersByStatusByCursor(
+            @PathVariable String status,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+
+        CursorPageDTO<OrderDTO> orders = orderService.getOrdersByStatus(user, status, cursor, size);
+
+        return cursorPageResponse(orders);
     }
 
     @GetMapping("/search")
@@ -94,4 +212,19 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * Tag a page with a weak ETag; for a matching If-None-Match, Spring answers
+     * 304 from the tag and skips serializing the body.
+     */
+    private ResponseEntity<Page<OrderDTO>> pageResponse(Page<OrderDTO> orders) {
+        String eTag = OrderETags.weak(orders.getContent(),
+                orders.getNumber(), orders.getSize(), orders.getTotalElements());
+        return ResponseEntity.ok().eTag(eTag).body(orders);
+    }
+
+    private ResponseEntity<CursorPageDTO<OrderDTO>> cursorPageResponse(CursorPageDTO<OrderDTO> orders) {
+        String eTag = OrderETags.weak(orders.getContent(), orders.getSize(), orders.getNextCursor());
+        return ResponseEntity.ok().eTag(eTag).body(orders);
+    }
+
 }
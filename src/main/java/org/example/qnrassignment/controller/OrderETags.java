@@ -0,0 +1,64 @@
+package org.example.qnrassignment.controller;
+
+import org.example.qnrassignment.core.exceptions.PreconditionFailedException;
+import org.example.qnrassignment.dto.OrderDTO;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Entity tags for order responses.
+ * A single order gets a strong tag {@code "<id>-<version>"}, which changes on every
+ * update. Pages get a weak tag from an MD5 digest (as {@code ShallowEtagHeaderFilter}
+ * uses) over the ids and versions of their content and the page metadata, so an
+ * unchanged page can be answered with 304 without serializing it.
+ */
+final class OrderETags {
+
+    private OrderETags() {
+    }
+
+    static String strong(Long orderId, long version) {
+        return "\"" + orderId + "-" + version + "\"";
+    }
+
+    static String strong(OrderDTO order) {
+        return strong(order.getId(), order.getVersion());
+    }
+
+    static String weak(List<OrderDTO> orders, Object... pageMetadata) {
+        StringBuilder content = new StringBuilder(32 + 24 * orders.size());
+        for (Object value : pageMetadata) {
+            content.append(value).append('\n');
+        }
+        for (OrderDTO order : orders) {
+            content.append(order.getId()).append(':').append(order.getVersion()).append('\n');
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Read the version an {@code If-Match} header expects
+     *
+     * @param ifMatch header value, may be null
+     * @param orderId id of the order being modified
+     * @return the expected version, or null when any version is acceptable
+     */
+    static Long expectedVersion(String ifMatch, Long orderId) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        String prefix = "\"" + orderId + "-";
+        if (!tag.startsWith(prefix) || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match does not match the current version of the order");
+        }
+        try {
+            return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not match the current version of the order");
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.qnrassignment.core.enums;
+
+import java.util.Locale;
+
+/**
+ * Lifecycle status of an order, stored as a small numeric code.
+ */
+public enum OrderStatus {
+    PENDING((short) 1),
+    PROCESSING((short) 2),
+    COMPLETED((short) 3),
+    CANCELLED((short) 4);
+
+    private final short code;
+
+    OrderStatus(short code) {
+        this.code = code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    public static OrderStatus fromCode(short code) {
+        for (OrderStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown order status code: " + code);
+    }
+
+    /**
+     * Parse a status name as sent by clients, ignoring case
+     *
+     * @param value status name, may be null
+     * @return the status, or null for a null value
+     */
+    public static OrderStatus from(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid order status: " + value);
+        }
+    }
+}
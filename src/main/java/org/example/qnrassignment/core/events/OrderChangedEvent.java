@@ -0,0 +1,33 @@
+package org.example.qnrassignment.core.events;
+
+import org.example.qnrassignment.dto.OrderDTO;
+
+/**
+ * Published by the order service for every order mutation.
+ * Listeners that keep derived state should react after commit.
+ *
+ * @param type    kind of change
+ * @param orderId id of the order
+ * @param userId  id of the order's owner
+ * @param order   state after the change, null for deletions
+ */
+public record OrderChangedEvent(Type type, Long orderId, Long userId, OrderDTO order) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static OrderChangedEvent created(OrderDTO order) {
+        return new OrderChangedEvent(Type.CREATED, order.getId(), order.getUserId(), order);
+    }
+
+    public static OrderChangedEvent updated(OrderDTO order) {
+        return new OrderChangedEvent(Type.UPDATED, order.getId(), order.getUserId(), order);
+    }
+
+    public static OrderChangedEvent deleted(Long orderId, Long userId) {
+        return new OrderChangedEvent(Type.DELETED, orderId, userId, null);
+    }
+}
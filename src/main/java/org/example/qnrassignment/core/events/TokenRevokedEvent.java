@@ -0,0 +1,11 @@
+package org.example.qnrassignment.core.events;
+
+/**
+ * Published when a token is blacklisted, so sessions opened with it can be closed.
+ * Listeners should react after commit.
+ *
+ * @param tokenHash hex encoded SHA-256 digest of the token
+ * @param username  subject of the token
+ */
+public record TokenRevokedEvent(String tokenHash, String username) {
+}
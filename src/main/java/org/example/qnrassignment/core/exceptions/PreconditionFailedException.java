@@ -0,0 +1,7 @@
+package org.example.qnrassignment.core.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
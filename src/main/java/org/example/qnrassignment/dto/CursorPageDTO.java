@@ -0,0 +1,22 @@
+package org.example.qnrassignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    /**
+     * Opaque token to pass as {@code cursor} to fetch the next page, null on the last page.
+     */
+    private String nextCursor;
+}
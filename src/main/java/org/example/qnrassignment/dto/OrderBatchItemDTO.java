@@ -0,0 +1,29 @@
+package org.example.qnrassignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchItemDTO {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        FAILED
+    }
+
+    /**
+     * Position of the item in the request body.
+     */
+    private int index;
+    private Status status;
+    private OrderDTO order;
+    private Map<String, String> errors;
+}
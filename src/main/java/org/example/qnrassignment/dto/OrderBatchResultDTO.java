@@ -0,0 +1,18 @@
+package org.example.qnrassignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchResultDTO {
+    private int created;
+    private int rejected;
+    private List<OrderBatchItemDTO> results;
+}
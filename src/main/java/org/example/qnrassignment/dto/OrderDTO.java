@@ -1,6 +1,7 @@
 package org.example.qnrassignment.dto;
 
 import lombok.*;
+import org.example.qnrassignment.core.enums.OrderStatus;
 
 import java.time.LocalDateTime;
 
@@ -11,9 +12,10 @@ import java.time.LocalDateTime;
 public class OrderDTO {
     private Long id;
     private String description;
-    private String status;
+    private OrderStatus status;
     private Long userId;
     private String username;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private long version;
 }
@@ -0,0 +1,18 @@
+package org.example.qnrassignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.qnrassignment.core.enums.OrderStatus;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDTO {
+    private long total;
+    private Map<OrderStatus, Long> byStatus;
+}
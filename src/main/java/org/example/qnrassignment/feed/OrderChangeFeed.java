@@ -0,0 +1,294 @@
+package org.example.qnrassignment.feed;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.qnrassignment.core.events.OrderChangedEvent;
+import org.example.qnrassignment.core.events.TokenRevokedEvent;
+import org.example.qnrassignment.service.TokenBlacklistService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes committed order changes to Server-Sent Events subscribers.
+ * Every subscriber gets a bounded queue drained on the feed's own sender
+ * pool, so a slow client never blocks the committing thread nor the
+ * threads other async work runs on; a client whose queue overflows is
+ * disconnected and resumes with {@code Last-Event-ID}.
+ * A subscription lives only as long as the token it was opened with: it
+ * times out when the token expires, is closed when the token is revoked
+ * here, and at the next heartbeat when it was revoked on another instance.
+ * Recent events are kept in a ring buffer for that replay. Event ids are
+ * {@code <epoch>-<sequence>}, the epoch changing on every start, so ids from
+ * before a restart are recognised and answered with a {@code reset} event.
+ */
+@Component
+@Slf4j
+public class OrderChangeFeed implements DisposableBean {
+    private static final String RESET_EVENT = "reset";
+
+    private final TokenBlacklistService tokenBlacklistService;
+    private final ThreadPoolExecutor executor;
+    private final int bufferSize;
+    private final int replaySize;
+    private final long timeoutMillis;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<FeedEvent> recent = new ArrayDeque<>();
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private long sequence;
+
+    public OrderChangeFeed(TokenBlacklistService tokenBlacklistService,
+                           @Value("${orders.stream.sender-threads:8}") int senderThreads,
+                           @Value("${orders.stream.max-subscribers:10000}") int maxSubscribers,
+                           @Value("${orders.stream.buffer-size:256}") int bufferSize,
+                           @Value("${orders.stream.replay-size:1000}") int replaySize,
+                           @Value("${orders.stream.timeout:PT30M}") Duration timeout) {
+        this.tokenBlacklistService = tokenBlacklistService;
+        AtomicInteger threadNumber = new AtomicInteger();
+        // A subscriber is queued for draining at most once, so the queue is bounded by the subscribers
+        this.executor = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxSubscribers), runnable -> {
+            Thread thread = new Thread(runnable, "order-feed-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    private record FeedEvent(long sequence, String id, OrderChangedEvent change) {
+    }
+
+    /**
+     * Open a feed of the changes to a user's orders
+     *
+     * @param userId      Owner of the orders
+     * @param tokenHash   Digest of the token the feed is opened with
+     * @param expiresAt   Expiry of that token, the feed does not outlive it
+     * @param lastEventId Id of the last event the client received, null for a new feed
+     * @return Emitter to return from the controller
+     */
+    public SseEmitter subscribe(Long userId, String tokenHash, Instant expiresAt, String lastEventId) {
+        long untilExpiry = Math.max(1, Duration.between(Instant.now(), expiresAt).toMillis());
+        SseEmitter emitter = new SseEmitter(Math.min(timeoutMillis, untilExpiry));
+        Subscriber subscriber = new Subscriber(userId, tokenHash, expiresAt, emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+
+        lock.lock();
+        try {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(subscriber, lastEventId.trim());
+            }
+            subscribers.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        subscriber.scheduleDrain();
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onOrderChanged(OrderChangedEvent change) {
+        lock.lock();
+        try {
+            sequence++;
+            FeedEvent event = new FeedEvent(sequence, epoch + "-" + sequence, change);
+            recent.addLast(event);
+            if (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+
+            for (Subscriber subscriber : subscribers.getOrDefault(change.userId(), Set.of())) {
+                subscriber.offer(SseEmitter.event()
+                        .id(event.id())
+                        .name(change.type().name().toLowerCase(Locale.ROOT))
+                        .data(change, MediaType.APPLICATION_JSON));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Close the feeds opened with a token that has just been revoked on this instance
+     */
+    @TransactionalEventListener
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                if (subscriber.tokenHash.equals(event.tokenHash())) {
+                    subscriber.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Keep idle connections open through proxies and detect clients that went away.
+     * Feeds whose token has expired, or has been revoked elsewhere, are closed here.
+     */
+    @Scheduled(fixedDelayString = "${orders.stream.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        Instant now = Instant.now();
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                if (!subscriber.expiresAt.isAfter(now)
+                        || tokenBlacklistService.isTokenHashBlacklisted(subscriber.tokenHash)) {
+                    subscriber.close();
+                } else {
+                    subscriber.offerIfRoom(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long lastSequence = parseSequence(lastEventId);
+        FeedEvent oldest = recent.peekFirst();
+        boolean covered = lastSequence >= 0 && lastSequence <= sequence
+                && (oldest == null || lastSequence >= oldest.sequence() - 1);
+
+        List<FeedEvent> missed = new ArrayList<>();
+        if (covered) {
+            for (FeedEvent event : recent) {
+                if (event.sequence() > lastSequence && event.change().userId().equals(subscriber.userId)) {
+                    missed.add(event);
+                }
+            }
+        }
+
+        if (!covered || missed.size() > bufferSize) {
+            // The gap cannot be replayed; the client has to reload its orders
+            subscriber.offer(SseEmitter.event()
+                    .id(epoch + "-" + sequence)
+                    .name(RESET_EVENT)
+                    .data("{}", MediaType.APPLICATION_JSON));
+            return;
+        }
+        for (FeedEvent event : missed) {
+            subscriber.offer(SseEmitter.event()
+                    .id(event.id())
+                    .name(event.change().type().name().toLowerCase(Locale.ROOT))
+                    .data(event.change(), MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * @return the sequence of an id from this epoch, -1 for any other id
+     */
+    private long parseSequence(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (userId, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final String tokenHash;
+        private final Instant expiresAt;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(Long userId, String tokenHash, Instant expiresAt, SseEmitter emitter) {
+            this.userId = userId;
+            this.tokenHash = tokenHash;
+            this.expiresAt = expiresAt;
+            this.emitter = emitter;
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                log.debug("Closing order feed of user {}: client is not keeping up", userId);
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void offerIfRoom(SseEmitter.SseEventBuilder event) {
+            if (!closed && queue.offer(event)) {
+                scheduleDrain();
+            }
+        }
+
+        private void scheduleDrain() {
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                    log.warn("Closing order feed of user {}: sender pool is saturated", userId);
+                    close();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client disconnected or the emitter already completed
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // Events offered after the last poll but before the flag was cleared
+            scheduleDrain();
+        }
+
+        private void close() {
+            closed = true;
+            queue.clear();
+            unsubscribe(this);
+            emitter.complete();
+        }
+    }
+}
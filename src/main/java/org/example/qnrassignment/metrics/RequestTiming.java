@@ -0,0 +1,111 @@
+package org.example.qnrassignment.metrics;
+
+import java.util.Locale;
+
+/**
+ * Per-request breakdown of where the time went, reported in the
+ * {@code Server-Timing} header by {@link ServerTimingFilter}.
+ * The recorder lives in a thread local that is only set for requests
+ * picked for timing, so every {@code record*} call is a single
+ * thread-local read when timing is off.
+ * Phases can overlap: statements run while authenticating or inside a
+ * service method count towards both phases.
+ */
+public final class RequestTiming {
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long started = System.nanoTime();
+    private long authNanos;
+    private long dbNanos;
+    private int statements;
+    private long serviceNanos;
+    private int serviceDepth;
+    private long serviceStarted;
+    private long serializationStarted;
+
+    private RequestTiming() {
+    }
+
+    /**
+     * Starts timing the current request on this thread.
+     */
+    public static RequestTiming start() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the recorder of the current request, or null when it is not being timed
+     */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    public static void recordAuth(long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.authNanos += nanos;
+        }
+    }
+
+    public static void recordStatement(long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.statements++;
+            timing.dbNanos += nanos;
+        }
+    }
+
+    /**
+     * Marks the point where the controller result starts being written.
+     */
+    public static void markSerialization() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && timing.serializationStarted == 0) {
+            timing.serializationStarted = System.nanoTime();
+        }
+    }
+
+    /**
+     * Service calls nest, so only the outermost one is timed.
+     */
+    void enterService() {
+        if (serviceDepth++ == 0) {
+            serviceStarted = System.nanoTime();
+        }
+    }
+
+    void exitService() {
+        if (--serviceDepth == 0) {
+            serviceNanos += System.nanoTime() - serviceStarted;
+        }
+    }
+
+    /**
+     * @return the {@code Server-Timing} header value, with durations in milliseconds
+     */
+    public String toHeader() {
+        long now = System.nanoTime();
+        StringBuilder header = new StringBuilder(160);
+        append(header, "auth", authNanos);
+        append(header, "db", dbNanos).append(";desc=\"").append(statements).append(" statements\"");
+        append(header, "service", serviceNanos);
+        append(header, "serialization", serializationStarted == 0 ? 0 : now - serializationStarted);
+        append(header, "total", now - started);
+        return header.toString();
+    }
+
+    private static StringBuilder append(StringBuilder header, String name, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        return header.append(name)
+                .append(";dur=")
+                .append(String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0));
+    }
+}
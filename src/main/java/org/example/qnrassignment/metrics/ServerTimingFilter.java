@@ -0,0 +1,81 @@
+package org.example.qnrassignment.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Starts the {@link RequestTiming} of requests that ask for it with the
+ * debug header, or that are picked by sampling. It runs first so that
+ * authentication is timed too, but it neither buffers the response nor
+ * adds the header: that is left to {@link ServerTimingHeaderFilter}, once
+ * the caller is known. Streamed endpoints are never timed.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    /**
+     * Responses written while they are produced, which must never be buffered
+     */
+    private static final Set<String> STREAMED_PATHS = Set.of("/api/orders/stream", "/api/orders/export");
+
+    @Value("${server-timing.enabled:false}")
+    private boolean enabled;
+
+    @Value("${server-timing.request-header:X-Debug-Timing}")
+    private String requestHeader;
+
+    @Value("${server-timing.sample-rate:0.0}")
+    private double sampleRate;
+
+    @Value("${server-timing.excluded-paths:}")
+    private List<String> excludedPaths;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return STREAMED_PATHS.contains(path) || excludedPaths.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        if (!isTimed(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RequestTiming.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTiming.stop();
+        }
+    }
+
+    private boolean isTimed(HttpServletRequest request) {
+        return request.getHeader(requestHeader) != null
+                || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.qnrassignment.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.example.qnrassignment.core.enums.Role;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Adds the {@code Server-Timing} header to the requests timed by
+ * {@link ServerTimingFilter}. It runs in the security filter chain after
+ * authentication, so only responses to callers authenticated as ADMIN are
+ * buffered, which lets the header be set after the body has been
+ * serialized. The breakdown reveals how the service spends its time, so
+ * other callers never get it, and their timing is dropped right away.
+ */
+@Component
+public class ServerTimingHeaderFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return RequestTiming.current() == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        if (!isAdmin()) {
+            RequestTiming.stop();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RequestTiming timing = RequestTiming.current();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            wrapper.setHeader(ServerTimingFilter.SERVER_TIMING, timing.toHeader());
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static boolean isAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> Role.ADMIN.name().equals(authority.getAuthority()));
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.qnrassignment.metrics;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Starts the serialization phase of {@link RequestTiming} just before a
+ * controller result is handed to the message converter.
+ */
+@RestControllerAdvice
+public class ServerTimingResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public @Nullable Object beforeBodyWrite(@Nullable Object body,
+                                            MethodParameter returnType,
+                                            MediaType selectedContentType,
+                                            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                            ServerHttpRequest request,
+                                            ServerHttpResponse response) {
+        RequestTiming.markSerialization();
+        return body;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.qnrassignment.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds the service phase of {@link RequestTiming} from the same
+ * {@code @Timed} services that publish the service timers.
+ */
+@Aspect
+@Component
+public class ServiceTimingAspect {
+
+    @Around("@within(org.springframework.stereotype.Service) && @within(io.micrometer.core.annotation.Timed)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            return joinPoint.proceed();
+        }
+
+        timing.enterService();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timing.exitService();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.qnrassignment.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.engine.spi.SessionEventListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the JDBC statements and their execution time of one Hibernate
+ * session and records them when the session ends. With open-in-view a
+ * session spans the whole web request, so these are per-request figures.
+ * Hibernate creates one instance per session from the class name, so the
+ * meters come from the global registry Spring Boot registers with.
+ * Each statement is also fed to the {@link RequestTiming} of a timed request.
+ */
+public class SessionStatementListener implements SessionEventListener {
+    private static final DistributionSummary STATEMENTS = DistributionSummary.builder("hibernate.session.statements")
+            .description("JDBC statements executed per Hibernate session")
+            .register(Metrics.globalRegistry);
+    private static final Timer JDBC_TIME = Timer.builder("hibernate.session.jdbc")
+            .description("Time spent executing JDBC statements per Hibernate session")
+            .register(Metrics.globalRegistry);
+
+    private int statements;
+    private long jdbcNanos;
+    private long executeStarted;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStarted = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        recordStatement(System.nanoTime() - executeStarted);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStarted = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        recordStatement(System.nanoTime() - executeStarted);
+    }
+
+    private void recordStatement(long nanos) {
+        statements++;
+        jdbcNanos += nanos;
+        RequestTiming.recordStatement(nanos);
+    }
+
+    @Override
+    public void end() {
+        if (statements > 0) {
+            STATEMENTS.record(statements);
+            JDBC_TIME.record(jdbcNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -22,6 +22,13 @@ import java.time.LocalDateTime;
 @DynamicInsert
 @EntityListeners(AuditingEntityListener.class)
 public class AbstractEntity {
+    /**
+     * Number of ids an entity sequence hands out per round trip.
+     * Ids are pooled so Hibernate does not have to execute each insert
+     * immediately to learn its key, which would disable JDBC batching.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
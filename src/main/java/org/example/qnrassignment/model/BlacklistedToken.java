@@ -11,19 +11,32 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Builder
-@Table(name = "blacklisted_tokens")
+@Table(
+        name = "blacklisted_tokens",
+        indexes = @Index(name = "idx_blacklisted_tokens_expires_at", columnList = "expires_at")
+)
 public class BlacklistedToken extends AbstractEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "blacklisted_tokens_seq")
+    @SequenceGenerator(name = "blacklisted_tokens_seq", sequenceName = "blacklisted_tokens_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 512)
-    private String token;
+    /**
+     * Hex encoded SHA-256 digest of the token, so the unique index stays fixed-size.
+     */
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
 
     @Column(nullable = false)
     private String username;
 
     @Column(nullable = false)
     private LocalDateTime blacklistedAt;
+
+    /**
+     * Expiry of the token itself; the row can be purged once it has passed.
+     */
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
 }
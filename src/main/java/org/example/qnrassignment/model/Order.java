@@ -6,6 +6,9 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.Builder;
+import org.example.qnrassignment.core.enums.OrderStatus;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @AllArgsConstructor
@@ -13,16 +16,29 @@ import lombok.Builder;
 @Getter
 @Setter
 @Builder
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Owner listings sorted by creation time, with id as the keyset tie-breaker
+        @Index(name = "idx_orders_user_created", columnList = "user_id, created_at, id"),
+        // Owner listings filtered by status, sorted by creation time
+        @Index(name = "idx_orders_user_status_created", columnList = "user_id, status, created_at")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Order extends AbstractEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String description;
-    private String status;
+    @Convert(converter = OrderStatusConverter.class)
+    private OrderStatus status;
 
-    @ManyToOne
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 }
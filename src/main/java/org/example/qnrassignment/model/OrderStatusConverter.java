@@ -0,0 +1,23 @@
+package org.example.qnrassignment.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.example.qnrassignment.core.enums.OrderStatus;
+
+/**
+ * Stores {@link OrderStatus} as its code, so the column is a SMALLINT
+ * instead of an unconstrained varchar.
+ */
+@Converter
+public class OrderStatusConverter implements AttributeConverter<OrderStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(OrderStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public OrderStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : OrderStatus.fromCode(code);
+    }
+}
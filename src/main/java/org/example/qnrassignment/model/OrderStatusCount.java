@@ -0,0 +1,48 @@
+package org.example.qnrassignment.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+
+/**
+ * Number of orders a user has in one status.
+ * Rows are maintained by {@code OrderStatusCounters} in the same transaction
+ * as the order writes, so they are only read through this entity.
+ */
+@Entity
+@Immutable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(OrderStatusCount.Key.class)
+@Table(name = "order_status_counts")
+public class OrderStatusCount {
+    /**
+     * Status code of orders without a status.
+     */
+    public static final short NO_STATUS = 0;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * {@link org.example.qnrassignment.core.enums.OrderStatus} code, or {@link #NO_STATUS}.
+     */
+    @Id
+    @Column(name = "status")
+    private short statusCode;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private short statusCode;
+    }
+}
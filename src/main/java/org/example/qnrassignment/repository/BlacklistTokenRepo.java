@@ -1,9 +1,20 @@
 package org.example.qnrassignment.repository;
 
 import org.example.qnrassignment.model.BlacklistedToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface BlacklistTokenRepo extends JpaRepository<BlacklistedToken, Long> {
 
-    boolean existsByToken(String token);
+    boolean existsByTokenHash(String tokenHash);
+
+    List<BlacklistedToken> findByExpiresAtAfter(LocalDateTime now);
+
+    @Query("SELECT b.id FROM BlacklistedToken b WHERE b.expiresAt <= :now ORDER BY b.id")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
 }
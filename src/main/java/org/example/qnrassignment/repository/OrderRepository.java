@@ -1,29 +1,180 @@
 package org.example.qnrassignment.repository;
 
+import org.example.qnrassignment.core.enums.OrderStatus;
+import org.example.qnrassignment.dto.OrderDTO;
 import org.example.qnrassignment.model.Order;
 import org.example.qnrassignment.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    /**
+     * Projects straight into {@link OrderDTO}, reading only the columns the DTO needs
+     * and joining the owner instead of loading a managed {@code User}.
+     */
+    String SELECT_ORDER_DTO = "SELECT new org.example.qnrassignment.dto.OrderDTO("
+            + "o.id, o.description, o.status, u.id, u.username, o.createdAt, o.updatedAt, o.version) "
+            + "FROM Order o JOIN o.user u";
+
+    /**
+     * Every order of a user, oldest first, in index order. Streamed by the export,
+     * which sets the driver fetch size on this query only.
+     */
+    String SELECT_ORDER_DTOS_FOR_EXPORT = SELECT_ORDER_DTO + " WHERE u.id = :userId ORDER BY o.createdAt, o.id";
+
+    interface DescriptionView {
+        Long getId();
+
+        String getDescription();
+    }
+
+    /**
+     * Columns of an order without its owner, for listings of the caller's own orders.
+     * Includes the keyset properties, createdAt and id.
+     */
+    interface OrderView {
+        Long getId();
+
+        String getDescription();
+
+        OrderStatus getStatus();
+
+        LocalDateTime getCreatedAt();
+
+        LocalDateTime getUpdatedAt();
+
+        long getVersion();
+    }
+
+    interface OwnerStatusView {
+        Long getUserId();
+
+        String getUsername();
+
+        OrderStatus getStatus();
+
+        LocalDateTime getCreatedAt();
+
+        long getVersion();
+    }
+
     List<Order> findByUser(User user);
 
     Page<Order> findByUser(User user, Pageable pageable);
 
-    List<Order> findByStatus(String status);
+    @Query(
+            value = SELECT_ORDER_DTO + " WHERE u.id = :userId",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId"
+    )
+    Page<OrderDTO> findDtosByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(SELECT_ORDER_DTO + " WHERE o.id = :id")
+    Optional<OrderDTO> findDtoById(@Param("id") Long id);
+
+    /**
+     * Keyset scroll over a user's orders. Seeks past the given position
+     * instead of using an offset, and issues no count query. Only the order
+     * columns are read, the owner is the caller.
+     */
+    Window<OrderView> findByUserId(Long userId, ScrollPosition position, Sort sort, Limit limit);
+
+    List<Order> findByStatus(OrderStatus status);
 
-    List<Order> findByUserAndStatus(User user, String status);
+    List<Order> findByUserAndStatus(User user, OrderStatus status);
 
-    Page<Order> findByUserAndStatus(User user, String status, Pageable pageable);
+    Page<Order> findByUserAndStatus(User user, OrderStatus status, Pageable pageable);
+
+    @Query(
+            value = SELECT_ORDER_DTO + " WHERE u.id = :userId AND o.status = :status",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId AND o.status = :status"
+    )
+    Page<OrderDTO> findDtosByUserIdAndStatus(@Param("userId") Long userId,
+                                             @Param("status") OrderStatus status,
+                                             Pageable pageable);
+
+    Window<OrderView> findByUserIdAndStatus(Long userId, OrderStatus status, ScrollPosition position, Sort sort, Limit limit);
 
     @Query("SELECT o FROM Order o WHERE LOWER(o.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     Page<Order> searchByDescription(@Param("keyword") String keyword, Pageable pageable);
 
+    @Query(
+            value = SELECT_ORDER_DTO + " WHERE LOWER(o.description) LIKE LOWER(CONCAT('%', :keyword, '%'))",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE LOWER(o.description) LIKE LOWER(CONCAT('%', :keyword, '%'))"
+    )
+    Page<OrderDTO> searchDtosByDescription(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query(SELECT_ORDER_DTO + " WHERE o.id IN :ids")
+    List<OrderDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT o.id AS id, o.description AS description FROM Order o WHERE o.id > :afterId ORDER BY o.id")
+    List<DescriptionView> findDescriptionsAfter(@Param("afterId") long afterId, Pageable pageable);
+
     long countByUser(User user);
+
+    /**
+     * Read the owner, status and version of an order visible to the given user,
+     * without locking it. The write that follows is conditional on the version,
+     * so the status it replaces is the one read here. Owner name and creation
+     * time are read too, so the written order can be returned without reading it again.
+     */
+    @Query("SELECT u.id AS userId, u.username AS username, o.status AS status, o.createdAt AS createdAt, "
+            + "o.version AS version FROM Order o JOIN o.user u "
+            + "WHERE o.id = :id AND (u.id = :userId OR :admin = true)")
+    Optional<OwnerStatusView> findOwnerAndStatusIfOwned(@Param("id") Long id,
+                                                        @Param("userId") Long userId,
+                                                        @Param("admin") boolean admin);
+
+    /**
+     * Read only the version of an order visible to the given user, for conditional requests.
+     */
+    @Query("SELECT o.version FROM Order o WHERE o.id = :id AND (o.user.id = :userId OR :admin = true)")
+    Optional<Long> findVersionIfOwned(@Param("id") Long id, @Param("userId") Long userId, @Param("admin") boolean admin);
+
+    /**
+     * Update an order only if it belongs to the given user, or unconditionally for admins,
+     * and only if it is still at the given version.
+     *
+     * @return number of rows updated, 0 if the order does not exist, is not visible to the user
+     * or has a different version
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.description = :description, o.status = :status, o.updatedAt = :updatedAt, "
+            + "o.version = o.version + 1 "
+            + "WHERE o.id = :id AND (o.user.id = :userId OR :admin = true) AND o.version = :version")
+    int updateIfOwned(@Param("id") Long id,
+                      @Param("description") String description,
+                      @Param("status") OrderStatus status,
+                      @Param("updatedAt") LocalDateTime updatedAt,
+                      @Param("userId") Long userId,
+                      @Param("admin") boolean admin,
+                      @Param("version") long version);
+
+    /**
+     * Delete an order only if it belongs to the given user, or unconditionally for admins,
+     * and only if it is still at the given version.
+     *
+     * @return number of rows deleted, 0 if the order does not exist, is not visible to the user
+     * or has a different version
+     */
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id = :id AND (o.user.id = :userId OR :admin = true) "
+            + "AND o.version = :version")
+    int deleteIfOwned(@Param("id") Long id,
+                      @Param("userId") Long userId,
+                      @Param("admin") boolean admin,
+                      @Param("version") long version);
 }
@@ -0,0 +1,10 @@
+package org.example.qnrassignment.repository;
+
+import org.example.qnrassignment.model.OrderStatusCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface OrderStatusCountRepository extends JpaRepository<OrderStatusCount, OrderStatusCount.Key> {
+    List<OrderStatusCount> findByUserId(Long userId);
+}
@@ -0,0 +1,339 @@
+package org.example.qnrassignment.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.qnrassignment.core.events.OrderChangedEvent;
+import org.example.qnrassignment.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over order descriptions.
+ * Trigram postings narrow a query down to the orders that can contain it
+ * as a substring, which keeps the semantics of the former
+ * {@code LIKE '%keyword%'} search. Word postings are used for ranking:
+ * orders where the query is a whole word rank above partial matches,
+ * then by number of occurrences, then newest first.
+ * The index follows {@link OrderChangedEvent}s of this instance after
+ * commit. It is rebuilt from the orders table at startup and reconciled
+ * with it every {@code orders.search.reconcile-interval}. That picks up
+ * writes made on other instances and outside the service.
+ * Every distinct trigram of a description costs a posting entry of about
+ * 60 bytes, roughly 6 KB for a 100-character description, so past
+ * {@code orders.search.max-documents} the index is dropped and search is
+ * served by the database until a reconcile finds fewer orders again.
+ */
+@Component
+@Slf4j
+public class OrderSearchIndex {
+    /**
+     * Queries shorter than a trigram cannot be narrowed by the postings
+     */
+    public static final int MIN_QUERY_LENGTH = 3;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    /**
+     * Matches are {score, id} pairs; a higher score ranks first, then the newer (higher) id
+     */
+    private static final Comparator<long[]> BY_RANK = Comparator.<long[]>comparingLong(match -> match[0])
+            .thenComparingLong(match -> match[1]);
+
+    private final OrderRepository orderRepository;
+    private final int maxDocuments;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private Index index = new Index();
+    private Set<Long> touchedDuringRebuild;
+    private volatile boolean ready;
+
+    public OrderSearchIndex(OrderRepository orderRepository,
+                            @Value("${orders.search.max-documents:20000}") int maxDocuments) {
+        this.orderRepository = orderRepository;
+        this.maxDocuments = maxDocuments;
+    }
+
+    public record SearchResult(List<Long> orderIds, long total) {
+    }
+
+    /**
+     * @param query Search text
+     * @return true when the index is built and the query is long enough to be served from it
+     */
+    public boolean canSearch(String query) {
+        return ready && normalize(query).length() >= MIN_QUERY_LENGTH;
+    }
+
+    /**
+     * Find orders whose description contains the query, case-insensitively.
+     *
+     * @param query  Search text, at least {@link #MIN_QUERY_LENGTH} characters
+     * @param offset Index of the first result to return
+     * @param limit  Maximum number of results to return
+     * @return Ranked page of order ids and the total number of matches
+     */
+    public SearchResult search(String query, long offset, int limit) {
+        String needle = normalize(query);
+        if (needle.length() < MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at least " + MIN_QUERY_LENGTH + " characters");
+        }
+
+        // Only the requested page and the ones before it are kept, in a heap whose head is the worst match
+        int keep = (int) Math.min(Integer.MAX_VALUE - 1L, offset + limit);
+        PriorityQueue<long[]> best = new PriorityQueue<>(BY_RANK);
+        long total = 0;
+
+        lock.readLock().lock();
+        try {
+            Set<Long> wholeWord = index.wordPostings.getOrDefault(needle, Set.of());
+            for (Long id : index.candidatesFor(needle)) {
+                int occurrences = countOccurrences(index.documents.get(id), needle);
+                if (occurrences == 0) {
+                    continue;
+                }
+                total++;
+                long[] match = {occurrences + (wholeWord.contains(id) ? 1_000 : 0), id};
+                if (best.size() < keep) {
+                    best.add(match);
+                } else if (keep > 0 && BY_RANK.compare(match, best.peek()) > 0) {
+                    best.poll();
+                    best.add(match);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<long[]> ranked = new ArrayList<>(best);
+        ranked.sort(BY_RANK.reversed());
+        List<Long> page = ranked.stream()
+                .skip(offset)
+                .map(match -> match[1])
+                .toList();
+        return new SearchResult(page, total);
+    }
+
+    @TransactionalEventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.type() == OrderChangedEvent.Type.DELETED) {
+            remove(event.orderId());
+        } else {
+            index(event.orderId(), event.order().getDescription());
+        }
+    }
+
+    public void index(Long orderId, String description) {
+        lock.writeLock().lock();
+        try {
+            if (!ready && touchedDuringRebuild == null) {
+                // Dropped for size, the next reconcile decides whether it comes back
+                return;
+            }
+            markTouched(orderId);
+            index.unindex(orderId);
+            index.add(orderId, description);
+            if (touchedDuringRebuild == null && index.documents.size() > maxDocuments) {
+                dropIndex();
+                log.warn("Order search index disabled: more than {} orders, searching the database instead",
+                        maxDocuments);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long orderId) {
+        lock.writeLock().lock();
+        try {
+            markTouched(orderId);
+            index.unindex(orderId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        rebuild();
+    }
+
+    /**
+     * Build a fresh index from every order description, in id order and in
+     * batches, while searches keep using the current one. Orders changed by
+     * events during the build take their state from the current index when
+     * the fresh one is swapped in, since the event carried their latest state.
+     */
+    @Scheduled(
+            fixedDelayString = "${orders.search.reconcile-interval:PT10M}",
+            initialDelayString = "${orders.search.reconcile-interval:PT10M}"
+    )
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            lock.writeLock().lock();
+            try {
+                touchedDuringRebuild = new HashSet<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Index fresh = load();
+
+            lock.writeLock().lock();
+            try {
+                if (fresh == null) {
+                    dropIndex();
+                    log.warn("Order search index disabled: more than {} orders, searching the database instead",
+                            maxDocuments);
+                } else {
+                    for (Long orderId : touchedDuringRebuild) {
+                        fresh.unindex(orderId);
+                        fresh.add(orderId, index.documents.get(orderId));
+                    }
+                    index = fresh;
+                    ready = true;
+                    log.info("Order search index rebuilt with {} documents", index.documents.size());
+                }
+            } finally {
+                touchedDuringRebuild = null;
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * @return the freshly loaded index, or null when there are more orders than it may hold
+     */
+    private Index load() {
+        Index fresh = new Index();
+        long lastId = 0;
+        List<OrderRepository.DescriptionView> batch;
+        do {
+            batch = orderRepository.findDescriptionsAfter(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (OrderRepository.DescriptionView view : batch) {
+                fresh.add(view.getId(), view.getDescription());
+            }
+            if (fresh.documents.size() > maxDocuments) {
+                return null;
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        return fresh;
+    }
+
+    private void dropIndex() {
+        ready = false;
+        index = new Index();
+    }
+
+    private void markTouched(Long orderId) {
+        if (touchedDuringRebuild != null) {
+            touchedDuringRebuild.add(orderId);
+        }
+    }
+
+    /**
+     * Documents and postings; only accessed under the lock once published.
+     */
+    private static final class Index {
+        private final Map<Long, String> documents = new HashMap<>();
+        private final Map<String, Set<Long>> gramPostings = new HashMap<>();
+        private final Map<String, Set<Long>> wordPostings = new HashMap<>();
+
+        private Collection<Long> candidatesFor(String needle) {
+            List<Set<Long>> postings = new ArrayList<>();
+            for (String gram : grams(needle)) {
+                Set<Long> posting = gramPostings.get(gram);
+                if (posting == null) {
+                    return List.of();
+                }
+                postings.add(posting);
+            }
+            postings.sort(Comparator.comparingInt(Set::size));
+
+            Set<Long> candidates = new HashSet<>(postings.get(0));
+            for (int i = 1; i < postings.size() && !candidates.isEmpty(); i++) {
+                candidates.retainAll(postings.get(i));
+            }
+            return candidates;
+        }
+
+        private void add(Long orderId, String description) {
+            if (description == null) {
+                return;
+            }
+            String text = normalize(description);
+            documents.put(orderId, text);
+            for (String gram : grams(text)) {
+                gramPostings.computeIfAbsent(gram, key -> new HashSet<>()).add(orderId);
+            }
+            for (String word : words(text)) {
+                wordPostings.computeIfAbsent(word, key -> new HashSet<>()).add(orderId);
+            }
+        }
+
+        private void unindex(Long orderId) {
+            String text = documents.remove(orderId);
+            if (text == null) {
+                return;
+            }
+            for (String gram : grams(text)) {
+                removePosting(gramPostings, gram, orderId);
+            }
+            for (String word : words(text)) {
+                removePosting(wordPostings, word, orderId);
+            }
+        }
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String key, Long orderId) {
+        Set<Long> posting = postings.get(key);
+        if (posting != null && posting.remove(orderId) && posting.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + MIN_QUERY_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + MIN_QUERY_LENGTH));
+        }
+        return grams;
+    }
+
+    private static Set<String> words(String text) {
+        Set<String> words = new HashSet<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static int countOccurrences(String text, String needle) {
+        int count = 0;
+        for (int i = text.indexOf(needle); i >= 0; i = text.indexOf(needle, i + needle.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
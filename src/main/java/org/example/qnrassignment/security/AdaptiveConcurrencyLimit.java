@@ -0,0 +1,174 @@
+package org.example.qnrassignment.security;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Concurrency limit that follows what the database can take (AIMD).
+ * Every completed request is a sample: when it took longer than the
+ * latency threshold, or threads are queueing for a pooled connection,
+ * the limit is cut multiplicatively, at most once per threshold period;
+ * otherwise, while the limit is actually in use, it grows by about one
+ * per limit's worth of requests. Only standard requests are latency
+ * samples: search, batch and login are slow by nature (large scans, bulk
+ * inserts, BCrypt), so their latency says nothing about database pressure.
+ * Expensive requests may only use a share of the limit, so reads keep the
+ * remaining capacity when it shrinks.
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyLimit {
+
+    public enum RequestClass {
+        /**
+         * Reads and single-order writes: the full limit, and their latency drives it
+         */
+        STANDARD(false, true),
+        /**
+         * Login and registration: the full limit, but their time is password hashing
+         */
+        AUTH(false, false),
+        /**
+         * Search and batch: only a share of the limit, and slow by design
+         */
+        EXPENSIVE(true, false);
+
+        private final boolean limitedToShare;
+        private final boolean latencySample;
+
+        RequestClass(boolean limitedToShare, boolean latencySample) {
+            this.limitedToShare = limitedToShare;
+            this.latencySample = latencySample;
+        }
+    }
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime());
+    private final HikariDataSource hikariDataSource;
+
+    private final double minLimit;
+    private final double maxLimit;
+    private final double backoffRatio;
+    private final double expensiveShare;
+    private final long latencyThresholdNanos;
+
+    public AdaptiveConcurrencyLimit(
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${concurrency-limit.initial:20}") int initialLimit,
+            @Value("${concurrency-limit.min:5}") int minLimit,
+            @Value("${concurrency-limit.max:200}") int maxLimit,
+            @Value("${concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${concurrency-limit.expensive-share:0.5}") double expensiveShare,
+            @Value("${concurrency-limit.latency-threshold:PT0.5S}") Duration latencyThreshold) {
+        if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1
+                || expensiveShare <= 0 || expensiveShare > 1) {
+            throw new IllegalArgumentException("Invalid concurrency-limit settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.expensiveShare = expensiveShare;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(
+                Math.max(minLimit, Math.min(maxLimit, initialLimit))));
+        this.hikariDataSource = unwrapHikari(dataSource);
+
+        Gauge.builder("http.server.concurrency.limit", this, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("http.server.concurrency.in_flight", inFlight, AtomicInteger::get)
+                .description("Requests currently holding a concurrency permit")
+                .register(meterRegistry);
+    }
+
+    public double getLimit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    /**
+     * @param requestClass kind of request asking for a permit
+     * @return true when a permit was taken; it must be handed back with {@link #release(RequestClass, long)}
+     */
+    public boolean tryAcquire(RequestClass requestClass) {
+        double limit = getLimit();
+        int allowed = (int) (requestClass.limitedToShare ? Math.max(1, limit * expensiveShare) : limit);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Hands back a permit and feeds the request into the limit.
+     *
+     * @param requestClass kind of request the permit was taken for
+     * @param latencyNanos time the request held its permit
+     */
+    public void release(RequestClass requestClass, long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+
+        if (poolUnderPressure() || (requestClass.latencySample && latencyNanos > latencyThresholdNanos)) {
+            decrease();
+        } else if (requestClass.latencySample && inFlightBefore * 2 >= getLimit()) {
+            update(limit -> limit + 1 / limit);
+        }
+    }
+
+    private void decrease() {
+        long now = System.nanoTime();
+        long last = lastDecrease.get();
+        // Requests slowed by the same episode finish together, count them once
+        if (now - last < latencyThresholdNanos || !lastDecrease.compareAndSet(last, now)) {
+            return;
+        }
+        double limit = update(current -> current * backoffRatio);
+        log.debug("Concurrency limit reduced to {}", (int) limit);
+    }
+
+    private double update(DoubleUnaryOperator function) {
+        while (true) {
+            long bits = limitBits.get();
+            double next = Math.max(minLimit, Math.min(maxLimit, function.applyAsDouble(Double.longBitsToDouble(bits))));
+            if (limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                return next;
+            }
+        }
+    }
+
+    private boolean poolUnderPressure() {
+        if (hikariDataSource == null) {
+            return false;
+        }
+        // Null until the pool has been started by the first connection request
+        HikariPoolMXBean pool = hikariDataSource.getHikariPoolMXBean();
+        return pool != null && pool.getThreadsAwaitingConnection() > 0;
+    }
+
+    private static HikariDataSource unwrapHikari(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            log.warn("Connection pool wait is not available to the concurrency limit: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.qnrassignment.security;
+
+import org.example.qnrassignment.core.enums.Role;
+
+/**
+ * What the order endpoints need to know about the caller.
+ * Implemented by the {@link org.example.qnrassignment.model.User} entity
+ * and by the claim-backed {@link JwtPrincipal}.
+ */
+public interface AuthenticatedUser {
+
+    Long getId();
+
+    String getUsername();
+
+    Role getRole();
+}
@@ -0,0 +1,96 @@
+package org.example.qnrassignment.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Sheds load in front of the order and auth controllers once the
+ * {@link AdaptiveConcurrencyLimit} is reached, answering 503 straight away
+ * instead of letting request threads queue for database connections.
+ * It runs before authentication, so shed requests cost no user lookups.
+ * Search and batch requests only get a share of the limit; everything
+ * else, reads in particular, keeps the rest. Only reads and single-order
+ * writes feed their latency into the limit. Long-lived streaming
+ * endpoints are not limited, as they would hold a permit for minutes.
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final Counter expensiveRejections;
+    private final Counter standardRejections;
+
+    @Value("${concurrency-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${concurrency-limit.excluded-paths:/api/orders/stream,/api/orders/export}")
+    private List<String> excludedPaths;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimit concurrencyLimit, MeterRegistry meterRegistry) {
+        this.concurrencyLimit = concurrencyLimit;
+        this.expensiveRejections = rejectionCounter(meterRegistry, "expensive");
+        this.standardRejections = rejectionCounter(meterRegistry, "standard");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !enabled
+                || !(path.startsWith("/api/orders") || path.startsWith("/api/auth/"))
+                || excludedPaths.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        AdaptiveConcurrencyLimit.RequestClass requestClass = switch (RateLimitGroup.of(request)) {
+            case SEARCH, BATCH -> AdaptiveConcurrencyLimit.RequestClass.EXPENSIVE;
+            case AUTH -> AdaptiveConcurrencyLimit.RequestClass.AUTH;
+            default -> AdaptiveConcurrencyLimit.RequestClass.STANDARD;
+        };
+
+        if (!concurrencyLimit.tryAcquire(requestClass)) {
+            (requestClass == AdaptiveConcurrencyLimit.RequestClass.EXPENSIVE
+                    ? expensiveRejections
+                    : standardRejections).increment();
+            log.debug("Request to {} shed at concurrency limit {}", request.getServletPath(),
+                    (int) concurrencyLimit.getLimit());
+
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            ErrorResponses.write(response, HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, please retry");
+            return;
+        }
+
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            concurrencyLimit.release(requestClass, System.nanoTime() - started);
+        }
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String priority) {
+        return Counter.builder("http.server.concurrency.rejections")
+                .description("Requests shed because the concurrency limit was reached")
+                .tag("priority", priority)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.qnrassignment.security;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Writes the error body of requests rejected by a filter, in the shape
+ * the {@code GlobalExceptionHandler} uses for everything else.
+ */
+final class ErrorResponses {
+
+    private ErrorResponses() {
+    }
+
+    static void write(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"timestamp\":\"" + LocalDateTime.now()
+                + "\",\"status\":" + status.value()
+                + ",\"message\":\"" + message + "\"}");
+    }
+}
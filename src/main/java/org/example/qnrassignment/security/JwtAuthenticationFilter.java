@@ -1,30 +1,68 @@
 package org.example.qnrassignment.security;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.qnrassignment.core.enums.Role;
+import org.example.qnrassignment.metrics.RequestTiming;
 import org.example.qnrassignment.service.TokenBlacklistService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final String PHASE_TIMER = "security.jwt.filter";
+    private static final String REJECTION_COUNTER = "security.jwt.filter.rejections";
+
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
     private final TokenBlacklistService tokenBlacklistService;
+    private final SecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
+
+    // Meters are resolved once, so recording on the hot path is a plain timer update
+    private final Timer blacklistTimer;
+    private final Timer verifyTimer;
+    private final Timer userLoadTimer;
+    private final Counter revokedCounter;
+    private final Counter invalidCounter;
+
+    @Value("${security.jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsService userDetailsService,
+                                   TokenBlacklistService tokenBlacklistService,
+                                   MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.blacklistTimer = phaseTimer(meterRegistry, "blacklist");
+        this.verifyTimer = phaseTimer(meterRegistry, "verify");
+        this.userLoadTimer = phaseTimer(meterRegistry, "user_load");
+        this.revokedCounter = rejectionCounter(meterRegistry, "revoked");
+        this.invalidCounter = rejectionCounter(meterRegistry, "invalid");
+    }
 
     @Override
     protected void doFilterInternal(
@@ -46,44 +84,105 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        long authStarted = System.nanoTime();
         try {
             final String jwt = authHeader.substring(7);
 
-            if (tokenBlacklistService.isTokenBlacklisted(jwt)) {
+            long started = System.nanoTime();
+            boolean blacklisted = tokenBlacklistService.isTokenBlacklisted(jwt);
+            blacklistTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+            if (blacklisted) {
+                revokedCounter.increment();
                 log.warn("Attempt to use blacklisted token");
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.getWriter().write("Token has been invalidated");
                 return;
             }
 
-            final String username = jwtService.extractSubject(jwt);
+            // Signature and expiry are checked here, once per request
+            started = System.nanoTime();
+            final VerifiedToken verifiedToken;
+            try {
+                verifiedToken = jwtService.verify(jwt);
+            } finally {
+                verifyTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+            final String username = verifiedToken.subject();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-
-                    authToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
+                if (statelessPrincipal && verifiedToken.userId() != null && verifiedToken.role() != null) {
+                    // Claims are signed, so the principal can be rebuilt without a users lookup
+                    JwtPrincipal principal = new JwtPrincipal(
+                            verifiedToken.userId(),
+                            username,
+                            Role.valueOf(verifiedToken.role())
                     );
+                    authenticate(request, response, principal, principal.getAuthorities());
 
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-
-                    log.debug("User '{}' authenticated successfully", username);
+                    log.debug("User '{}' authenticated from token claims", username);
                 } else {
-                    log.warn("Invalid token for user '{}'", username);
+                    started = System.nanoTime();
+                    UserDetails userDetails;
+                    try {
+                        userDetails = userDetailsService.loadUserByUsername(username);
+                    } finally {
+                        userLoadTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                    }
+
+                    if (jwtService.isTokenValid(verifiedToken, userDetails)) {
+                        authenticate(request, response, userDetails, userDetails.getAuthorities());
+
+                        log.debug("User '{}' authenticated successfully", username);
+                    } else {
+                        invalidCounter.increment();
+                        log.warn("Invalid token for user '{}'", username);
+                    }
                 }
             }
         } catch (Exception e) {
+            invalidCounter.increment();
             log.error("Error processing JWT token: {}", e.getMessage());
+        } finally {
+            RequestTiming.recordAuth(System.nanoTime() - authStarted);
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private static Timer phaseTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder(PHASE_TIMER)
+                .description("Time spent in each phase of bearer token authentication")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(REJECTION_COUNTER)
+                .description("Bearer tokens that did not authenticate the request")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private void authenticate(HttpServletRequest request,
+                              HttpServletResponse response,
+                              Object principal,
+                              Collection<? extends GrantedAuthority> authorities) {
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                authorities
+        );
+
+        authToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request)
+        );
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authToken);
+        SecurityContextHolder.setContext(context);
+        // Kept on the request, so the async dispatch of a streamed response is authorized as the same caller
+        securityContextRepository.saveContext(context, request, response);
+    }
 }
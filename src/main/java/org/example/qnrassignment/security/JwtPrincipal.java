@@ -0,0 +1,30 @@
+package org.example.qnrassignment.security;
+
+import lombok.Value;
+import org.example.qnrassignment.core.enums.Role;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lightweight principal built straight from the signed claims of a token,
+ * used when stateless authentication is enabled.
+ */
+@Value
+public class JwtPrincipal implements AuthenticatedUser, AuthenticatedPrincipal {
+    Long id;
+    String username;
+    Role role;
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.name()));
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.qnrassignment.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -17,15 +18,23 @@ import java.util.function.Function;
 @Service
 @Slf4j
 public class JwtService {
-    @Value("${jwt.secret-key}")
-    private String secretKey;
+    private final long jwtExpiration;
+    private final SecretKey signInKey;
+    private final JwtParser jwtParser;
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    public JwtService(@Value("${jwt.secret-key}") String secretKey,
+                      @Value("${jwt.expiration}") long jwtExpiration) {
+        this.jwtExpiration = jwtExpiration;
+        this.signInKey = buildSignInKey(secretKey);
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
+    }
 
-    public String generateToken(String username, String role) {
+    public String generateToken(Long userId, String username, String role) {
         var claims = new HashMap<String, Object>();
         claims.put("roles", role);
+        claims.put("uid", userId);
         return Jwts
                 .builder()
                 .issuer("self")
@@ -33,13 +42,42 @@ public class JwtService {
                 .subject(username)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
+    /**
+     * Parses and verifies a token once.
+     * The signature and the expiration are both checked by the parser,
+     * so callers can read every claim they need from the result
+     * instead of parsing the token again.
+     *
+     * @param token raw JWT
+     * @return the verified claims
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+        return new VerifiedToken(
+                claims.get("uid", Long.class),
+                claims.getSubject(),
+                claims.get("roles", String.class),
+                claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant()
+        );
+    }
+
+    /**
+     * @param token       token already checked by {@link #verify(String)}, which rejects expired tokens
+     * @param userDetails user the token is presented for
+     * @return true when the token was issued to that user
+     */
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return token.subject().equals(userDetails.getUsername());
+    }
+
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String subject = extractSubject(token);
-        return (subject.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verify(token), userDetails);
     }
 
     public String getStringClaim(String token, String claim) {
@@ -55,19 +93,12 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -76,10 +107,12 @@ public class JwtService {
      * Creates a HS256 SecretKey.
      * Starting from secretKey we get a byte array
      * of the secret. Then we get the {@link javax.crypto.SecretKey}.
+     * Built once at startup and shared by the signer and the parser.
      *
+     * @param secretKey base64 encoded secret
      * @return a SecretKey for signing/verifying JWTs.
      */
-    private SecretKey getSignInKey() {
+    private static SecretKey buildSignInKey(String secretKey) {
         byte[] keyBytes = Decoders.BASE64.decode(secretKey);
         return Keys.hmacShaKeyFor(keyBytes);
     }
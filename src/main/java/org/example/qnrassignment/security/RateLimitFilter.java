@@ -0,0 +1,86 @@
+package org.example.qnrassignment.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the {@link RateLimiter} budgets right after bearer token
+ * authentication, per user when the caller is authenticated and per
+ * client address otherwise. Rejected requests get a 429 with
+ * {@code Retry-After} before they reach a controller or the database.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimiter rateLimiter;
+    private final Map<RateLimitGroup, Counter> rejections = new EnumMap<>(RateLimitGroup.class);
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    public RateLimitFilter(RateLimiter rateLimiter, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        for (RateLimitGroup group : RateLimitGroup.values()) {
+            rejections.put(group, Counter.builder("security.rate.limit.rejections")
+                    .description("Requests rejected because the caller ran out of budget")
+                    .tag("group", group.getKey())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !request.getServletPath().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        RateLimitGroup group = RateLimitGroup.of(request);
+        long waitNanos = rateLimiter.tryAcquire(group, callerKey(request));
+
+        if (waitNanos > 0) {
+            rejections.get(group).increment();
+            log.debug("Rate limit exceeded for group '{}'", group.getKey());
+
+            long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            ErrorResponses.write(response, HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many requests, retry in " + retryAfterSeconds + " seconds");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private static Object callerKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        // The forwarded client address when the request came through a trusted proxy (server.tomcat.remoteip)
+        return request.getRemoteAddr();
+    }
+}
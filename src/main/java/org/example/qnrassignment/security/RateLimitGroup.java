@@ -0,0 +1,51 @@
+package org.example.qnrassignment.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Endpoint groups with their own request budget. The defaults can be
+ * overridden with {@code rate-limit.<group>.capacity} and
+ * {@code rate-limit.<group>.refill-per-second}.
+ */
+public enum RateLimitGroup {
+    AUTH("auth", 10, 1),
+    SEARCH("search", 20, 5),
+    BATCH("batch", 5, 0.5),
+    EXPORT("export", 2, 0.1),
+    DEFAULT("default", 200, 100);
+
+    private final String key;
+    private final long defaultCapacity;
+    private final double defaultRefillPerSecond;
+
+    RateLimitGroup(String key, long defaultCapacity, double defaultRefillPerSecond) {
+        this.key = key;
+        this.defaultCapacity = defaultCapacity;
+        this.defaultRefillPerSecond = defaultRefillPerSecond;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getDefaultCapacity() {
+        return defaultCapacity;
+    }
+
+    public double getDefaultRefillPerSecond() {
+        return defaultRefillPerSecond;
+    }
+
+    public static RateLimitGroup of(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (path.startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        return switch (path) {
+            case "/api/orders/search" -> SEARCH;
+            case "/api/orders/batch" -> BATCH;
+            case "/api/orders/export" -> EXPORT;
+            default -> DEFAULT;
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.qnrassignment.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory token buckets, one per endpoint group and caller.
+ * Each bucket is a single {@link AtomicLong} holding the time at which it
+ * will be full again (the GCRA form of a token bucket), so taking a token
+ * is a map lookup and one compare-and-set, without locks.
+ * A bucket that has refilled completely is indistinguishable from a new
+ * one, so idle buckets are dropped by a periodic sweep without losing state.
+ */
+@Component
+public class RateLimiter {
+    private final Map<RateLimitGroup, Budget> budgets = new EnumMap<>(RateLimitGroup.class);
+
+    public RateLimiter(Environment environment, MeterRegistry meterRegistry) {
+        for (RateLimitGroup group : RateLimitGroup.values()) {
+            String prefix = "rate-limit." + group.getKey();
+            long capacity = environment.getProperty(prefix + ".capacity", Long.class, group.getDefaultCapacity());
+            double refillPerSecond = environment.getProperty(prefix + ".refill-per-second", Double.class,
+                    group.getDefaultRefillPerSecond());
+            if (capacity < 1 || refillPerSecond <= 0) {
+                throw new IllegalArgumentException("Invalid rate limit budget for group '" + group.getKey() + "'");
+            }
+
+            Budget budget = new Budget(capacity, refillPerSecond);
+            budgets.put(group, budget);
+            Gauge.builder("security.rate.limit.keys", budget.buckets, Map::size)
+                    .description("Callers with a partially used rate limit bucket")
+                    .tag("group", group.getKey())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Takes one token from the caller's bucket.
+     *
+     * @param group endpoint group of the request
+     * @param key   user id for authenticated callers, client address otherwise
+     * @return 0 when the request may proceed, otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire(RateLimitGroup group, Object key) {
+        Budget budget = budgets.get(group);
+        long now = System.nanoTime();
+
+        AtomicLong bucket = budget.buckets.get(key);
+        if (bucket == null) {
+            AtomicLong fresh = new AtomicLong(now);
+            bucket = budget.buckets.putIfAbsent(key, fresh);
+            if (bucket == null) {
+                bucket = fresh;
+            }
+        }
+
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + budget.interval;
+            long wait = next - budget.burst - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that have refilled completely. A request racing with the
+     * sweep may take a token from a bucket that is being dropped, which at
+     * worst grants that caller one extra request.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval:PT1M}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (Budget budget : budgets.values()) {
+            budget.buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+    }
+
+    private static final class Budget {
+        // Nanoseconds per token, and the time a full bucket covers
+        private final long interval;
+        private final long burst;
+        private final Map<Object, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+        private Budget(long capacity, double refillPerSecond) {
+            this.interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+            this.burst = capacity * interval;
+        }
+    }
+}
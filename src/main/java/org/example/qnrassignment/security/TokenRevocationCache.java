@@ -0,0 +1,165 @@
+package org.example.qnrassignment.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Local view of revoked tokens, keyed by the SHA-256 digest of the token.
+ * A Bloom filter answers "definitely not revoked" without any I/O, and a
+ * bounded map of digests to token expiry confirms the positive answers.
+ * Whatever the map cannot confirm is reported as {@link Verdict#UNKNOWN}
+ * so the caller can fall back to the database.
+ * The cache only sees revocations made on this instance; tokens revoked
+ * through another instance are picked up by the next {@link #rebuild(Supplier)}.
+ */
+@Component
+@Slf4j
+public class TokenRevocationCache {
+
+    public enum Verdict {
+        NOT_REVOKED,
+        REVOKED,
+        UNKNOWN
+    }
+
+    private final int maxEntries;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+    private volatile boolean loaded;
+    private List<Map.Entry<String, Long>> pendingDuringRebuild;
+
+    public TokenRevocationCache(
+            @Value("${jwt.blacklist.cache.max-entries:100000}") int maxEntries,
+            @Value("${jwt.blacklist.bloom.expected-insertions:100000}") long expectedInsertions,
+            @Value("${jwt.blacklist.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.maxEntries = maxEntries;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.snapshot = new Snapshot(new BloomFilter(expectedInsertions, falsePositiveRate));
+    }
+
+    /**
+     * Looks up a token digest without touching the database.
+     *
+     * @param tokenHash hex encoded SHA-256 digest of the token
+     * @return the verdict, {@link Verdict#UNKNOWN} until the cache has been loaded
+     */
+    public Verdict check(String tokenHash) {
+        if (!loaded) {
+            return Verdict.UNKNOWN;
+        }
+
+        Snapshot current = snapshot;
+        if (!current.bloomFilter.mightContain(tokenHash)) {
+            return Verdict.NOT_REVOKED;
+        }
+
+        Long expiresAt = current.entries.get(tokenHash);
+        if (expiresAt == null) {
+            // Bloom false positive, or an entry that did not fit in the bounded map
+            return Verdict.UNKNOWN;
+        }
+        // An expired token is rejected by signature verification anyway
+        return expiresAt > System.currentTimeMillis() ? Verdict.REVOKED : Verdict.NOT_REVOKED;
+    }
+
+    /**
+     * Records a revoked token.
+     *
+     * @param tokenHash hex encoded SHA-256 digest of the token
+     * @param expiresAt expiry of the token, after which the entry can be dropped
+     */
+    public void revoke(String tokenHash, Instant expiresAt) {
+        writeLock.lock();
+        try {
+            snapshot.add(tokenHash, expiresAt.toEpochMilli(), maxEntries);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(Map.entry(tokenHash, expiresAt.toEpochMilli()));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the cache contents with the revocations currently stored in the database.
+     * Revocations recorded from the moment the load starts are replayed on top of it,
+     * so one committed while the database is being read is not lost.
+     *
+     * @param loader reads the digests and expiry of every token that has not yet expired
+     */
+    public void rebuild(Supplier<Map<String, Instant>> loader) {
+        writeLock.lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            writeLock.unlock();
+        }
+
+        Map<String, Instant> revocations;
+        try {
+            revocations = loader.get();
+        } catch (RuntimeException e) {
+            writeLock.lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                writeLock.unlock();
+            }
+            throw e;
+        }
+
+        Snapshot fresh = new Snapshot(new BloomFilter(
+                Math.max(expectedInsertions, 2L * revocations.size()), falsePositiveRate));
+        revocations.forEach((hash, expiresAt) -> fresh.add(hash, expiresAt.toEpochMilli(), maxEntries));
+
+        writeLock.lock();
+        try {
+            pendingDuringRebuild.forEach(entry -> fresh.add(entry.getKey(), entry.getValue(), maxEntries));
+            pendingDuringRebuild = null;
+            snapshot = fresh;
+            loaded = true;
+        } finally {
+            writeLock.unlock();
+        }
+
+        log.info("Token revocation cache rebuilt with {} entries", fresh.entries.size());
+    }
+
+    /**
+     * Drops map entries whose tokens have expired. The Bloom filter keeps their bits
+     * until the next {@link #rebuild(Supplier)}.
+     */
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        snapshot.entries.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    private static final class Snapshot {
+        private final BloomFilter bloomFilter;
+        private final Map<String, Long> entries = new ConcurrentHashMap<>();
+
+        private Snapshot(BloomFilter bloomFilter) {
+            this.bloomFilter = bloomFilter;
+        }
+
+        private void add(String tokenHash, long expiresAt, int maxEntries) {
+            bloomFilter.put(tokenHash);
+            if (entries.size() < maxEntries || entries.containsKey(tokenHash)) {
+                entries.put(tokenHash, expiresAt);
+            }
+        }
+    }
+}
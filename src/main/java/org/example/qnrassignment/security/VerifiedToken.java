@@ -0,0 +1,15 @@
+package org.example.qnrassignment.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been checked.
+ *
+ * @param userId    id of the user, null for tokens issued before the {@code uid} claim existed
+ * @param subject   username the token was issued to
+ * @param role      value of the {@code roles} claim
+ * @param issuedAt  issue time
+ * @param expiresAt expiry time
+ */
+public record VerifiedToken(Long userId, String subject, String role, Instant issuedAt, Instant expiresAt) {
+}
@@ -1,5 +1,7 @@
 package org.example.qnrassignment.service;
 
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.qnrassignment.core.enums.Role;
@@ -9,6 +11,8 @@ import org.example.qnrassignment.dto.RegisterDTO;
 import org.example.qnrassignment.model.User;
 import org.example.qnrassignment.repository.UserRepository;
 import org.example.qnrassignment.security.JwtService;
+import org.example.qnrassignment.security.TokenDigest;
+import org.example.qnrassignment.security.VerifiedToken;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -22,6 +26,7 @@ import java.util.Date;
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
+@Timed("auth.service")
 public class AuthService {
 
     private final UserRepository userRepository;
@@ -52,7 +57,7 @@ public class AuthService {
         userRepository.save(user);
         log.info("User {} has been registered", user.getUsername());
 
-        String token = jwtService.generateToken(user.getUsername(), user.getRole().name());
+        String token = jwtService.generateToken(user.getId(), user.getUsername(), user.getRole().name());
 
         return AuthenticationDTO.builder()
                 .username(user.getUsername())
@@ -71,7 +76,7 @@ public class AuthService {
         );
 
         User user = (User) authentication.getPrincipal();
-        String token = jwtService.generateToken(user.getUsername(), user.getRole().name());
+        String token = jwtService.generateToken(user.getId(), user.getUsername(), user.getRole().name());
 
         log.info("User {} has logged in successfully.", user.getUsername());
 
@@ -86,11 +91,18 @@ public class AuthService {
     }
 
     public void logout(String token) {
-        String username = jwtService.extractSubject(token);
-        Date expirationDate = jwtService.extractExpiration(token);
+        VerifiedToken verifiedToken;
+        try {
+            verifiedToken = jwtService.verify(token);
+        } catch (JwtException e) {
+            throw new IllegalArgumentException("Invalid or expired token");
+        }
+        String username = verifiedToken.subject();
 
-        tokenBlacklistService.blacklistToken(token, username, expirationDate);
+        tokenBlacklistService.blacklistToken(token, username, Date.from(verifiedToken.expiresAt()));
 
-        log.info("User {} has been logged out. Token {} has been blacklisted", username, token);
+        // Never log the bearer token itself; the digest prefix matches the stored token hash
+        log.info("User {} has been logged out. Token {}... has been blacklisted",
+                username, TokenDigest.sha256Hex(token).substring(0, 12));
     }
 }
@@ -3,6 +3,7 @@ package org.example.qnrassignment.service;
 import lombok.RequiredArgsConstructor;
 import org.example.qnrassignment.repository.UserRepository;
 import org.jspecify.annotations.NullMarked;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -12,10 +13,19 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
+    public static final String USERS_CACHE = "users";
+
     private final UserRepository userRepository;
 
+    /**
+     * Load a user by username.
+     * Results are kept in the bounded {@value #USERS_CACHE} cache and evicted by
+     * {@link UserCacheEvictionListener} whenever the user row is written.
+     * Unknown usernames are not cached.
+     */
     @Override
     @NullMarked
+    @Cacheable(cacheNames = USERS_CACHE, key = "#username")
     public UserDetails loadUserByUsername(String username) {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException(
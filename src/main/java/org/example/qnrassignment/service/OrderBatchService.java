@@ -0,0 +1,199 @@
+package org.example.qnrassignment.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.qnrassignment.core.enums.OrderStatus;
+import org.example.qnrassignment.core.events.OrderChangedEvent;
+import org.example.qnrassignment.dto.CreateOrderDTO;
+import org.example.qnrassignment.dto.OrderBatchItemDTO;
+import org.example.qnrassignment.dto.OrderBatchResultDTO;
+import org.example.qnrassignment.dto.OrderDTO;
+import org.example.qnrassignment.model.Order;
+import org.example.qnrassignment.model.User;
+import org.example.qnrassignment.security.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.InputStream;
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderBatchService {
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderStatusCounters orderStatusCounters;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${orders.batch.max-items:10000}")
+    private int maxItems;
+
+    @Value("${orders.batch.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Read a batch request body, a JSON array of create requests, one item at a time.
+     * The body is rejected as soon as it holds more than {@code orders.batch.max-items}
+     * items, before the rest of it is read and bound.
+     *
+     * @param body Request body
+     * @return Create requests, in request order
+     */
+    public List<CreateOrderDTO> readBatch(InputStream body) {
+        List<CreateOrderDTO> createOrderDTOs = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("A batch must be a JSON array of orders");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (createOrderDTOs.size() == maxItems) {
+                    throw new IllegalArgumentException("A batch can contain at most " + maxItems + " orders");
+                }
+                createOrderDTOs.add(objectMapper.readValue(parser, CreateOrderDTO.class));
+            }
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Malformed batch: " + e.getOriginalMessage());
+        }
+        return createOrderDTOs;
+    }
+
+    /**
+     * Create many orders at once.
+     * Every item is validated on its own; the valid ones are persisted in
+     * chunks of {@code orders.batch.chunk-size}, each chunk flushed as JDBC
+     * batches and committed in its own transaction, so one failing chunk
+     * does not roll back the others.
+     *
+     * @param createOrderDTOs DTOs containing order creation data
+     * @param user            User associated with the orders
+     * @return Outcome of every item, in request order
+     */
+    public OrderBatchResultDTO createOrders(List<CreateOrderDTO> createOrderDTOs, AuthenticatedUser user) {
+        if (createOrderDTOs == null || createOrderDTOs.isEmpty()) {
+            throw new IllegalArgumentException("At least one order is required");
+        }
+        if (createOrderDTOs.size() > maxItems) {
+            throw new IllegalArgumentException("A batch can contain at most " + maxItems + " orders");
+        }
+
+        OrderBatchItemDTO[] results = new OrderBatchItemDTO[createOrderDTOs.size()];
+        List<Integer> valid = new ArrayList<>(createOrderDTOs.size());
+
+        for (int i = 0; i < createOrderDTOs.size(); i++) {
+            Map<String, String> errors = validate(createOrderDTOs.get(i));
+            if (errors.isEmpty()) {
+                valid.add(i);
+            } else {
+                results[i] = OrderBatchItemDTO.builder()
+                        .index(i)
+                        .status(OrderBatchItemDTO.Status.INVALID)
+                        .errors(errors)
+                        .build();
+            }
+        }
+
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        insertChunk(createOrderDTOs, chunk, user, results));
+            } catch (RuntimeException e) {
+                log.error("Batch chunk of {} orders failed: {}", chunk.size(), e.getMessage());
+                for (int index : chunk) {
+                    results[index] = OrderBatchItemDTO.builder()
+                            .index(index)
+                            .status(OrderBatchItemDTO.Status.FAILED)
+                            .errors(Map.of("batch", "Chunk could not be written"))
+                            .build();
+                }
+            }
+        }
+
+        int created = (int) Arrays.stream(results)
+                .filter(result -> result.getStatus() == OrderBatchItemDTO.Status.CREATED)
+                .count();
+
+        return OrderBatchResultDTO.builder()
+                .created(created)
+                .rejected(results.length - created)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    private void insertChunk(List<CreateOrderDTO> createOrderDTOs,
+                             List<Integer> chunk,
+                             AuthenticatedUser user,
+                             OrderBatchItemDTO[] results) {
+        User owner = entityManager.getReference(User.class, user.getId());
+        List<Order> orders = new ArrayList<>(chunk.size());
+
+        for (int index : chunk) {
+            CreateOrderDTO createOrderDTO = createOrderDTOs.get(index);
+            Order order = Order.builder()
+                    .description(createOrderDTO.getDescription())
+                    .status(OrderStatus.from(createOrderDTO.getStatus()))
+                    .user(owner)
+                    .build();
+            entityManager.persist(order);
+            orders.add(order);
+        }
+
+        // Ids come from the pooled sequence, so the inserts go out as JDBC batches here
+        entityManager.flush();
+
+        Map<Short, Long> statusDeltas = new HashMap<>();
+        for (Order order : orders) {
+            statusDeltas.merge(OrderStatusCounters.code(order.getStatus()), 1L, Long::sum);
+        }
+        orderStatusCounters.adjust(user.getId(), statusDeltas);
+
+        for (int i = 0; i < chunk.size(); i++) {
+            int index = chunk.get(i);
+            Order order = orders.get(i);
+            OrderDTO orderDTO = OrderService.mapToDTO(order, user);
+
+            results[index] = OrderBatchItemDTO.builder()
+                    .index(index)
+                    .status(OrderBatchItemDTO.Status.CREATED)
+                    .order(orderDTO)
+                    .build();
+            eventPublisher.publishEvent(OrderChangedEvent.created(orderDTO));
+        }
+
+        entityManager.clear();
+    }
+
+    private Map<String, String> validate(CreateOrderDTO createOrderDTO) {
+        if (createOrderDTO == null) {
+            return Map.of("order", "Order is required.");
+        }
+
+        Map<String, String> errors = new HashMap<>();
+        for (ConstraintViolation<CreateOrderDTO> violation : validator.validate(createOrderDTO)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        if (!errors.containsKey("status")) {
+            try {
+                OrderStatus.from(createOrderDTO.getStatus());
+            } catch (IllegalArgumentException e) {
+                errors.put("status", e.getMessage());
+            }
+        }
+        return errors;
+    }
+}
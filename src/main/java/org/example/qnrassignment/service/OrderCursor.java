@@ -0,0 +1,83 @@
+package org.example.qnrassignment.service;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opaque continuation token for keyset pagination over orders.
+ * Encodes the sort the cursor was issued for and the key values of the
+ * last row returned, e.g. {@code createdAt:DESC|createdAt=2026-01-19T10:30|id=42}.
+ */
+final class OrderCursor {
+
+    static final Set<String> SORTABLE_PROPERTIES = Set.of("createdAt", "id");
+
+    private OrderCursor() {
+    }
+
+    /**
+     * Encode the position after the last row of a page
+     *
+     * @param position  keyset position of the last row
+     * @param sortBy    sort property the page was fetched with
+     * @param direction sort direction the page was fetched with
+     * @return URL-safe cursor
+     */
+    static String encode(KeysetScrollPosition position, String sortBy, Sort.Direction direction) {
+        StringBuilder raw = new StringBuilder(sortBy).append(':').append(direction.name());
+        position.getKeys().forEach((key, value) -> raw.append('|').append(key).append('=').append(value));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor back into a scroll position
+     *
+     * @param cursor    cursor from a previous page, empty for the first page
+     * @param sortBy    sort property of the current request
+     * @param direction sort direction of the current request
+     * @return position to scroll forward from
+     */
+    static ScrollPosition decode(String cursor, String sortBy, Sort.Direction direction) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        if (!parts[0].equals(sortBy + ":" + direction.name())) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort order");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            for (int i = 1; i < parts.length; i++) {
+                String[] keyValue = parts[i].split("=", 2);
+                switch (keyValue[0]) {
+                    case "createdAt" -> keys.put("createdAt", LocalDateTime.parse(keyValue[1]));
+                    case "id" -> keys.put("id", Long.parseLong(keyValue[1]));
+                    default -> throw new IllegalArgumentException("Invalid cursor");
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        if (!keys.containsKey("id")) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return ScrollPosition.forward(keys);
+    }
+}
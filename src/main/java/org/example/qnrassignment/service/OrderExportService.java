@@ -0,0 +1,157 @@
+package org.example.qnrassignment.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.Getter;
+import org.example.qnrassignment.dto.OrderDTO;
+import org.example.qnrassignment.repository.OrderRepository;
+import org.example.qnrassignment.security.AuthenticatedUser;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+@Service
+public class OrderExportService {
+    private static final int FLUSH_INTERVAL = 1000;
+    private static final String CSV_HEADER = "id,description,status,userId,username,createdAt,updatedAt,version";
+
+    private final ObjectMapper objectMapper;
+    private final Semaphore slots;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Integer.MIN_VALUE makes Connector/J stream rows one by one; H2 needs a positive value
+    @Value("${orders.export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    public OrderExportService(ObjectMapper objectMapper,
+                              @Value("${orders.export.max-concurrent:4}") int maxConcurrentExports) {
+        this.objectMapper = objectMapper;
+        this.slots = new Semaphore(maxConcurrentExports);
+    }
+
+    @Getter
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public static Format from(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid export format: " + value);
+            }
+        }
+    }
+
+    /**
+     * Reserve one of the {@code orders.export.max-concurrent} export slots, shared
+     * by all users. Each export holds a thread, a transaction and a pooled
+     * connection while it runs, so the total has to be capped.
+     *
+     * @return false when every slot is taken
+     */
+    public boolean tryReserveSlot() {
+        return slots.tryAcquire();
+    }
+
+    public void releaseSlot() {
+        slots.release();
+    }
+
+    /**
+     * Write every order of a user to the given stream, oldest first.
+     * Rows are streamed by the driver and written as they arrive, so memory
+     * use does not depend on the number of orders.
+     *
+     * @param user         User whose orders are exported
+     * @param format       Output format
+     * @param outputStream Stream to write to, left open
+     */
+    @Transactional(readOnly = true)
+    public void exportOrders(AuthenticatedUser user, Format format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<OrderDTO> orders = entityManager
+                .createQuery(OrderRepository.SELECT_ORDER_DTOS_FOR_EXPORT, OrderDTO.class)
+                .setParameter("userId", user.getId())
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream()) {
+            Iterator<OrderDTO> iterator = orders.iterator();
+            for (int written = 1; iterator.hasNext(); written++) {
+                OrderDTO order = iterator.next();
+                if (format == Format.CSV) {
+                    writeCsvRow(writer, order);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(order));
+                }
+                writer.write('\n');
+
+                if (written % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvRow(Writer writer, OrderDTO order) throws IOException {
+        writer.write(String.valueOf(order.getId()));
+        writer.write(',');
+        writer.write(csvField(order.getDescription()));
+        writer.write(',');
+        writer.write(order.getStatus() == null ? "" : order.getStatus().name());
+        writer.write(',');
+        writer.write(String.valueOf(order.getUserId()));
+        writer.write(',');
+        writer.write(csvField(order.getUsername()));
+        writer.write(',');
+        writer.write(order.getCreatedAt() == null ? "" : order.getCreatedAt().toString());
+        writer.write(',');
+        writer.write(order.getUpdatedAt() == null ? "" : order.getUpdatedAt().toString());
+        writer.write(',');
+        writer.write(String.valueOf(order.getVersion()));
+    }
+
+    /**
+     * Neutralize a field that a spreadsheet would read as a formula, by
+     * prefixing it with an apostrophe, then quote it when it contains a
+     * separator, quote or line break (RFC 4180).
+     * Package-private for the tests.
+     */
+    static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        if ("=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,23 +1,63 @@
 package org.example.qnrassignment.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.example.qnrassignment.core.enums.OrderStatus;
+import org.example.qnrassignment.core.enums.Role;
+import org.example.qnrassignment.core.events.OrderChangedEvent;
+import org.example.qnrassignment.core.exceptions.PreconditionFailedException;
 import org.example.qnrassignment.core.exceptions.ResourceNotFoundException;
+import org.example.qnrassignment.core.exceptions.ServiceUnavailableException;
 import org.example.qnrassignment.dto.CreateOrderDTO;
+import org.example.qnrassignment.dto.CursorPageDTO;
 import org.example.qnrassignment.dto.OrderDTO;
+import org.example.qnrassignment.dto.OrderSummaryDTO;
 import org.example.qnrassignment.dto.UpdateOrderDTO;
 import org.example.qnrassignment.model.Order;
-import org.example.qnrassignment.model.User;
+import org.example.qnrassignment.model.OrderStatusCount;
 import org.example.qnrassignment.repository.OrderRepository;
+import org.example.qnrassignment.repository.OrderStatusCountRepository;
+import org.example.qnrassignment.repository.UserRepository;
+import org.example.qnrassignment.search.OrderSearchIndex;
+import org.example.qnrassignment.security.AuthenticatedUser;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed("order.service")
 public class OrderService {
+    /**
+     * Conditional writes that lose this many races to concurrent writes give up
+     */
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+
     private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final OrderSearchIndex orderSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderStatusCountRepository orderStatusCountRepository;
+    private final OrderStatusCounters orderStatusCounters;
 
     /**
      * Create a new Order
@@ -27,15 +67,19 @@ public class OrderService {
      * @return Created Order DTO
      */
 
-    public OrderDTO createOrder(CreateOrderDTO createOrderDTO, User user) {
+    public OrderDTO createOrder(CreateOrderDTO createOrderDTO, AuthenticatedUser user) {
         Order order = Order.builder()
                 .description(createOrderDTO.getDescription())
-                .status(createOrderDTO.getStatus())
-                .user(user)
+                .status(OrderStatus.from(createOrderDTO.getStatus()))
+                // Reference only, the caller's row is not loaded
+                .user(userRepository.getReferenceById(user.getId()))
                 .build();
 
         Order savedOrder = orderRepository.save(order);
-        return mapToDTO(savedOrder);
+        orderStatusCounters.increment(user.getId(), savedOrder.getStatus());
+        OrderDTO orderDTO = mapToDTO(savedOrder, user);
+        eventPublisher.publishEvent(OrderChangedEvent.created(orderDTO));
+        return orderDTO;
     }
 
     /**
@@ -47,77 +91,181 @@ public class OrderService {
      */
 
     @Transactional(readOnly = true)
-    public Page<OrderDTO> getUserOrders(User user, Pageable pageable) {
-        Page<Order> orders = orderRepository.findByUser(user, pageable);
-        return orders.map(this::mapToDTO);
+    public Page<OrderDTO> getUserOrders(AuthenticatedUser user, Pageable pageable) {
+        return orderRepository.findDtosByUserId(user.getId(), pageable);
     }
 
+    /**
+     * Get orders for a specific user using keyset pagination
+     *
+     * @param user      User whose orders are to be fetched
+     * @param cursor    Cursor returned with the previous page, empty for the first page
+     * @param size      Page size
+     * @param sortBy    Sort property, createdAt or id
+     * @param direction Sort direction
+     * @return Page of Order DTOs with the cursor of the next page
+     */
     @Transactional(readOnly = true)
-    public OrderDTO getOrderById(Long orderId, User user) {
-        Order order = orderRepository.findById(orderId)
+    public CursorPageDTO<OrderDTO> getUserOrders(AuthenticatedUser user, String cursor, int size,
+                                                 String sortBy, Sort.Direction direction) {
+        ScrollPosition position = OrderCursor.decode(cursor, checkKeysetSort(sortBy, size), direction);
+        Window<OrderRepository.OrderView> orders = orderRepository.findByUserId(
+                user.getId(), position, keysetSort(sortBy, direction), Limit.of(size));
+        return toCursorPage(orders, user, sortBy, direction);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderDTO getOrderById(Long orderId, AuthenticatedUser user) {
+        OrderDTO order = orderRepository.findDtoById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
 
-        if (!order.getUser().getId().equals(user.getId()) &&
+        if (!order.getUserId().equals(user.getId()) &&
                 !isAdmin(user)) {
             throw new ResourceNotFoundException("Order", "id", orderId);
         }
 
-        return mapToDTO(order);
+        return order;
     }
 
     @Transactional(readOnly = true)
-    public OrderDTO getOrderByIdAndUser(Long orderId, User user) {
-        Order order = orderRepository.findById(orderId)
+    public OrderDTO getOrderByIdAndUser(Long orderId, AuthenticatedUser user) {
+        OrderDTO order = orderRepository.findDtoById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
 
-        if (!order.getUser().getId().equals(user.getId()) &&
+        if (!order.getUserId().equals(user.getId()) &&
                 !isAdmin(user)) {
             throw new ResourceNotFoundException("Order", "id", orderId);
         }
 
-        return mapToDTO(order);
+        return order;
     }
 
     /**
-     * Update an existing Order
+     * Get the current version of an Order, without loading the order itself
      *
-     * @param orderId        ID of the order to update
-     * @param updateOrderDTO DTO containing updated order data
-     * @param user           User associated with the order
-     * @return Updated Order DTO
+     * @param orderId ID of the order
+     * @param user    User requesting the order
+     * @return Version of the order
      */
-    public OrderDTO updateOrder(Long orderId, UpdateOrderDTO updateOrderDTO, User user) {
-        Order order = orderRepository.findById(orderId)
+    @Transactional(readOnly = true)
+    public long getOrderVersion(Long orderId, AuthenticatedUser user) {
+        return orderRepository.findVersionIfOwned(orderId, user.getId(), isAdmin(user))
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+    }
 
-        if (!order.getUser().getId().equals(user.getId()) &&
-                !isAdmin(user)) {
-            throw new ResourceNotFoundException("Order", "id", orderId);
-        }
+    /**
+     * Update an existing Order.
+     * Only the order's owner, status and version are read, without a lock,
+     * and the UPDATE is conditional on that version, so the status it
+     * replaces is known for the status counters. When another write commits
+     * in between, the order is read again and the update retried. The order
+     * is neither loaded nor dirty-checked; the result is built from the row
+     * that was read and the values that were written.
+     *
+     * @param orderId         ID of the order to update
+     * @param updateOrderDTO  DTO containing updated order data
+     * @param user            User associated with the order
+     * @param expectedVersion Version the client last saw, or null to update unconditionally
+     * @return Updated Order DTO
+     */
+    // Every attempt must see the latest committed version, not the snapshot of the first read
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public OrderDTO updateOrder(Long orderId, UpdateOrderDTO updateOrderDTO, AuthenticatedUser user,
+                                Long expectedVersion) {
+        OrderStatus status = OrderStatus.from(updateOrderDTO.getStatus());
+        boolean admin = isAdmin(user);
+        for (int attempt = 0; attempt < MAX_WRITE_ATTEMPTS; attempt++) {
+            OrderRepository.OwnerStatusView current = orderRepository
+                    .findOwnerAndStatusIfOwned(orderId, user.getId(), admin)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+            if (expectedVersion != null && current.getVersion() != expectedVersion) {
+                throw new PreconditionFailedException("Order " + orderId + " has been modified since version " + expectedVersion);
+            }
 
-        order.setDescription(updateOrderDTO.getDescription());
-        order.setStatus(updateOrderDTO.getStatus());
+            // DATETIME(6) keeps microseconds, so the returned value matches what a later read sees
+            LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            int updated = orderRepository.updateIfOwned(
+                    orderId,
+                    updateOrderDTO.getDescription(),
+                    status,
+                    updatedAt,
+                    user.getId(),
+                    admin,
+                    current.getVersion()
+            );
+            if (updated == 1) {
+                orderStatusCounters.move(current.getUserId(), current.getStatus(), status);
 
-        Order updatedOrder = orderRepository.save(order);
-        return mapToDTO(updatedOrder);
+                OrderDTO orderDTO = OrderDTO.builder()
+                        .id(orderId)
+                        .description(updateOrderDTO.getDescription())
+                        .status(status)
+                        .userId(current.getUserId())
+                        .username(current.getUsername())
+                        .createdAt(current.getCreatedAt())
+                        .updatedAt(updatedAt)
+                        .version(current.getVersion() + 1)
+                        .build();
+                eventPublisher.publishEvent(OrderChangedEvent.updated(orderDTO));
+                return orderDTO;
+            }
+        }
+        throw new ServiceUnavailableException("Order " + orderId + " is being modified concurrently, please retry later");
     }
 
     /**
-     * Delete an Order
+     * Delete an Order.
+     * Its owner, status and version are read first, without a lock, to adjust
+     * the status counters and address the change event; the DELETE is
+     * conditional on ownership and on that version, and retried when another
+     * write commits in between.
      *
      * @param orderId ID of the order to delete
      * @param user    User associated with the order
      */
-    public void deleteOrder(Long orderId, User user) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public void deleteOrder(Long orderId, AuthenticatedUser user) {
+        boolean admin = isAdmin(user);
+        for (int attempt = 0; attempt < MAX_WRITE_ATTEMPTS; attempt++) {
+            OrderRepository.OwnerStatusView current = orderRepository
+                    .findOwnerAndStatusIfOwned(orderId, user.getId(), admin)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
 
-        if (!order.getUser().getId().equals(user.getId()) &&
-                !isAdmin(user)) {
-            throw new ResourceNotFoundException("Order", "id", orderId);
+            if (orderRepository.deleteIfOwned(orderId, user.getId(), admin, current.getVersion()) == 1) {
+                orderStatusCounters.decrement(current.getUserId(), current.getStatus());
+                eventPublisher.publishEvent(OrderChangedEvent.deleted(orderId, current.getUserId()));
+                return;
+            }
         }
+        throw new ServiceUnavailableException("Order " + orderId + " is being modified concurrently, please retry later");
+    }
 
-        orderRepository.delete(order);
+    /**
+     * Get the number of orders of a user, in total and per status.
+     * Served from the maintained counters, not by counting orders.
+     *
+     * @param user User whose orders are counted
+     * @return Order counts
+     */
+    @Transactional(readOnly = true)
+    public OrderSummaryDTO getOrderSummary(AuthenticatedUser user) {
+        Map<OrderStatus, Long> byStatus = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+
+        long total = 0;
+        for (OrderStatusCount count : orderStatusCountRepository.findByUserId(user.getId())) {
+            total += count.getOrderCount();
+            if (count.getStatusCode() != OrderStatusCount.NO_STATUS) {
+                byStatus.merge(OrderStatus.fromCode(count.getStatusCode()), count.getOrderCount(), Long::sum);
+            }
+        }
+
+        return OrderSummaryDTO.builder()
+                .total(total)
+                .byStatus(byStatus)
+                .build();
     }
 
     /**
@@ -129,39 +277,164 @@ public class OrderService {
      * @return Paginated list of Order DTOs
      */
     @Transactional(readOnly = true)
-    public Page<OrderDTO> getOrdersByStatus(User user, String status, Pageable pageable) {
-        Page<Order> orders = orderRepository.findByUserAndStatus(user, status, pageable);
-        return orders.map(this::mapToDTO);
+    public Page<OrderDTO> getOrdersByStatus(AuthenticatedUser user, String status, Pageable pageable) {
+        return orderRepository.findDtosByUserIdAndStatus(user.getId(), OrderStatus.from(status), pageable);
+    }
+
+    /**
+     * Get orders for a specific user filtered by status using keyset pagination
+     *
+     * @param user   User whose orders are to be fetched
+     * @param status Status to filter orders
+     * @param cursor Cursor returned with the previous page, empty for the first page
+     * @param size   Page size
+     * @return Page of Order DTOs, newest first, with the cursor of the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderDTO> getOrdersByStatus(AuthenticatedUser user, String status, String cursor, int size) {
+        String sortBy = checkKeysetSort("createdAt", size);
+        ScrollPosition position = OrderCursor.decode(cursor, sortBy, Sort.Direction.DESC);
+        Window<OrderRepository.OrderView> orders = orderRepository.findByUserIdAndStatus(
+                user.getId(), OrderStatus.from(status), position, keysetSort(sortBy, Sort.Direction.DESC), Limit.of(size));
+        return toCursorPage(orders, user, sortBy, Sort.Direction.DESC);
     }
 
     /**
-     * Search orders by description keyword for a specific user
+     * Search orders by description keyword for a specific user.
+     * Matching and ranking are done by the in-memory search index, the
+     * matching page is then loaded in a single query. Queries shorter than
+     * a trigram, and any search while the index is not available, use the
+     * database LIKE query instead.
      *
      * @param keyword  Keyword to search in order descriptions
      * @param pageable Pagination information
-     * @return Paginated list of Order DTOs matching the search criteria
+     * @return Paginated list of Order DTOs matching the search criteria, best matches first
      */
     @Transactional(readOnly = true)
     public Page<OrderDTO> searchOrders(String keyword, Pageable pageable) {
-        Page<Order> orders = orderRepository.searchByDescription(keyword, pageable);
-        return orders.map(this::mapToDTO);
+        if (!orderSearchIndex.canSearch(keyword)) {
+            return orderRepository.searchDtosByDescription(keyword, pageable);
+        }
+
+        OrderSearchIndex.SearchResult result = orderSearchIndex.search(
+                keyword, pageable.getOffset(), pageable.getPageSize());
+        if (result.orderIds().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, result.total());
+        }
+
+        Map<Long, OrderDTO> ordersById = orderRepository.findDtosByIdIn(result.orderIds()).stream()
+                .collect(Collectors.toMap(OrderDTO::getId, Function.identity()));
+        List<OrderDTO> orders = result.orderIds().stream()
+                .map(ordersById::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new PageImpl<>(orders, pageable, result.total());
+    }
+
+    /**
+     * Check that a keyset page can be served for the requested sort
+     *
+     * @param sortBy Sort property
+     * @param size   Page size
+     * @return the sort property
+     */
+    private String checkKeysetSort(String sortBy, int size) {
+        if (!OrderCursor.SORTABLE_PROPERTIES.contains(sortBy)) {
+            throw new IllegalArgumentException("Cursor pagination supports sorting by " + OrderCursor.SORTABLE_PROPERTIES);
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one");
+        }
+        return sortBy;
+    }
+
+    /**
+     * Sort for a keyset query, with the id tie-breaker in the same direction.
+     * Spring Data would otherwise append {@code id ASC}, an order the
+     * (user_id, ..., created_at, id) indexes cannot serve when sorting descending.
+     *
+     * @param sortBy    Sort property, createdAt or id
+     * @param direction Sort direction
+     * @return Sort ending with id
+     */
+    public static Sort keysetSort(String sortBy, Sort.Direction direction) {
+        Sort sort = Sort.by(direction, sortBy);
+        return "id".equals(sortBy) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * Map a window of Order entities to a cursor page
+     *
+     * @param window    Window returned by the keyset query
+     * @param sortBy    Sort property the window was fetched with
+     * @param direction Sort direction the window was fetched with
+     * @return Cursor page of Order DTOs
+     */
+    private CursorPageDTO<OrderDTO> toCursorPage(Window<OrderRepository.OrderView> window, AuthenticatedUser owner,
+                                                 String sortBy, Sort.Direction direction) {
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? OrderCursor.encode((KeysetScrollPosition) window.positionAt(window.size() - 1), sortBy, direction)
+                : null;
+
+        return CursorPageDTO.<OrderDTO>builder()
+                .content(window.map(order -> mapToDTO(order, owner)).getContent())
+                .size(window.size())
+                .hasNext(window.hasNext())
+                .nextCursor(nextCursor)
+                .build();
     }
 
     /**
-     * Map Order entity to OrderDTO
+     * Map Order entity to OrderDTO, initializing the user reference for the owner.
+     * Package-private for the mapping benchmark.
      *
      * @param order Order entity
      * @return Order DTO
      */
-    private OrderDTO mapToDTO(Order order) {
+    static OrderDTO mapToDTO(Order order) {
+        return mapToDTO(order, order.getUser());
+    }
+
+    /**
+     * Map Order entity to OrderDTO, taking the owner details from the given
+     * user instead of initializing the user reference.
+     * Package-private so that batch creation uses the same mapping.
+     *
+     * @param order Order entity
+     * @param owner User the order belongs to
+     * @return Order DTO
+     */
+    static OrderDTO mapToDTO(Order order, AuthenticatedUser owner) {
+        return OrderDTO.builder()
+                .id(order.getId())
+                .description(order.getDescription())
+                .status(order.getStatus())
+                .userId(owner.getId())
+                .username(owner.getUsername())
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .version(order.getVersion())
+                .build();
+    }
+
+    /**
+     * Map an order projection of the caller's own orders to OrderDTO
+     *
+     * @param order Order columns
+     * @param owner User the orders were listed for
+     * @return Order DTO
+     */
+    private static OrderDTO mapToDTO(OrderRepository.OrderView order, AuthenticatedUser owner) {
         return OrderDTO.builder()
                 .id(order.getId())
                 .description(order.getDescription())
                 .status(order.getStatus())
-                .userId(order.getUser().getId())
-                .username(order.getUser().getUsername())
+                .userId(owner.getId())
+                .username(owner.getUsername())
                 .createdAt(order.getCreatedAt())
                 .updatedAt(order.getUpdatedAt())
+                .version(order.getVersion())
                 .build();
     }
 
@@ -171,7 +444,7 @@ public class OrderService {
      * @param user User to check
      * @return true if user is admin
      */
-    private boolean isAdmin(User user) {
-        return user.getRole().name().equals("ADMIN");
+    private boolean isAdmin(AuthenticatedUser user) {
+        return user.getRole() == Role.ADMIN;
     }
 }
@@ -0,0 +1,73 @@
+package org.example.qnrassignment.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.qnrassignment.core.enums.OrderStatus;
+import org.example.qnrassignment.model.OrderStatusCount;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps {@code order_status_counts} in step with the orders table.
+ * Every adjustment joins the caller's transaction, so the counters commit
+ * or roll back together with the order write they describe.
+ */
+@Component
+class OrderStatusCounters {
+    private static final String UPSERT = "INSERT INTO order_status_counts (user_id, status, order_count) "
+            + "VALUES (?1, ?2, ?3) ON DUPLICATE KEY UPDATE order_count = order_count + ?3";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void increment(Long userId, OrderStatus status) {
+        adjust(userId, Map.of(code(status), 1L));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void decrement(Long userId, OrderStatus status) {
+        adjust(userId, Map.of(code(status), -1L));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void move(Long userId, OrderStatus from, OrderStatus to) {
+        if (from == to) {
+            return;
+        }
+        adjust(userId, Map.of(code(from), -1L, code(to), 1L));
+    }
+
+    /**
+     * Apply several adjustments for one user.
+     * Rows are updated in status code order, so concurrent transactions lock
+     * them in the same order and cannot deadlock on each other.
+     *
+     * @param userId Owner of the orders
+     * @param deltas Change per status code
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjust(Long userId, Map<Short, Long> deltas) {
+        new TreeMap<>(deltas).forEach((statusCode, delta) -> {
+            if (delta != 0) {
+                entityManager.createNativeQuery(UPSERT)
+                        .unwrap(NativeQuery.class)
+                        // Only this table changes, other second-level cache regions stay valid
+                        .addSynchronizedQuerySpace("order_status_counts")
+                        .setParameter(1, userId)
+                        .setParameter(2, statusCode)
+                        .setParameter(3, delta)
+                        .executeUpdate();
+            }
+        });
+    }
+
+    static short code(OrderStatus status) {
+        return status == null ? OrderStatusCount.NO_STATUS : status.getCode();
+    }
+}
@@ -3,12 +3,26 @@ package org.example.qnrassignment.service;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.qnrassignment.core.events.TokenRevokedEvent;
 import org.example.qnrassignment.model.BlacklistedToken;
 import org.example.qnrassignment.repository.BlacklistTokenRepo;
+import org.example.qnrassignment.security.TokenDigest;
+import org.example.qnrassignment.security.TokenRevocationCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -16,26 +30,126 @@ import java.util.Date;
 public class TokenBlacklistService {
 
     private final BlacklistTokenRepo blacklistTokenRepo;
+    private final TokenRevocationCache revocationCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${jwt.expiration}")
+    private long jwtExpiration;
+
+    @Value("${jwt.blacklist.purge.chunk-size:1000}")
+    private int purgeChunkSize;
 
     @Transactional
     public void blacklistToken(String token, String username, Date expiryDate) {
-        if (blacklistTokenRepo.existsByToken(token)) {
+        String tokenHash = TokenDigest.sha256Hex(token);
+        if (blacklistTokenRepo.existsByTokenHash(tokenHash)) {
             log.warn("Token is already blacklisted.");
             return;
         }
 
+        Instant expiresAt = expiryDate != null
+                ? expiryDate.toInstant()
+                : Instant.now().plusMillis(jwtExpiration);
+
         BlacklistedToken blacklistedToken = BlacklistedToken.builder()
-                .token(token)
+                .tokenHash(tokenHash)
                 .username(username)
                 .blacklistedAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()))
                 .build();
 
         blacklistTokenRepo.save(blacklistedToken);
+
+        revocationCache.revoke(tokenHash, expiresAt);
+        eventPublisher.publishEvent(new TokenRevokedEvent(tokenHash, username));
         log.info("Token blacklisted successfully for user: {}", username);
     }
 
-    @Transactional
+    /**
+     * Check whether a token has been revoked.
+     * Answered from the in-memory revocation cache; the database is only
+     * queried when the cache cannot give a definite answer.
+     *
+     * @param token raw JWT
+     * @return true if the token has been blacklisted
+     */
     public boolean isTokenBlacklisted(String token) {
-        return blacklistTokenRepo.existsByToken(token);
+        return isTokenHashBlacklisted(TokenDigest.sha256Hex(token));
+    }
+
+    /**
+     * Same as {@link #isTokenBlacklisted(String)}, for callers that only kept the digest.
+     *
+     * @param tokenHash hex encoded SHA-256 digest of the token
+     * @return true if the token has been blacklisted
+     */
+    public boolean isTokenHashBlacklisted(String tokenHash) {
+        return switch (revocationCache.check(tokenHash)) {
+            case NOT_REVOKED -> false;
+            case REVOKED -> true;
+            case UNKNOWN -> blacklistTokenRepo.existsByTokenHash(tokenHash);
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRevocationCache() {
+        rebuildRevocationCache();
+    }
+
+    /**
+     * Reload the revocation cache from the rows whose tokens have not expired yet.
+     * This is also how revocations made on other instances reach this one, so the
+     * interval bounds how long such a token keeps being accepted here.
+     */
+    @Scheduled(
+            fixedDelayString = "${jwt.blacklist.cache.rebuild-interval:PT5M}",
+            initialDelayString = "${jwt.blacklist.cache.rebuild-interval:PT5M}"
+    )
+    public void rebuildRevocationCache() {
+        revocationCache.rebuild(this::loadRevocations);
+    }
+
+    private Map<String, Instant> loadRevocations() {
+        Map<String, Instant> revocations = new HashMap<>();
+
+        for (BlacklistedToken blacklistedToken : blacklistTokenRepo.findByExpiresAtAfter(LocalDateTime.now())) {
+            revocations.put(
+                    blacklistedToken.getTokenHash(),
+                    blacklistedToken.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant()
+            );
+        }
+        return revocations;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.blacklist.cache.eviction-interval:PT5M}")
+    public void evictExpiredRevocations() {
+        revocationCache.evictExpired();
+    }
+
+    /**
+     * Delete blacklist rows whose tokens have expired.
+     * Rows are removed in chunks, each in its own short transaction,
+     * so a large backlog never holds locks on the whole table.
+     */
+    @Scheduled(
+            fixedDelayString = "${jwt.blacklist.purge.interval:PT15M}",
+            initialDelayString = "${jwt.blacklist.purge.interval:PT15M}"
+    )
+    public void purgeExpiredTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = 0;
+        List<Long> expiredIds;
+
+        do {
+            expiredIds = blacklistTokenRepo.findExpiredIds(now, PageRequest.of(0, purgeChunkSize));
+            if (!expiredIds.isEmpty()) {
+                blacklistTokenRepo.deleteAllByIdInBatch(expiredIds);
+                purged += expiredIds.size();
+            }
+        } while (expiredIds.size() == purgeChunkSize);
+
+        if (purged > 0) {
+            log.info("Purged {} expired blacklisted tokens", purged);
+        }
     }
 }
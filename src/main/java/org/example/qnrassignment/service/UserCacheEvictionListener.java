@@ -0,0 +1,50 @@
+package org.example.qnrassignment.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.example.qnrassignment.model.User;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the user details cache consistent with the users table.
+ * Any insert, update or delete of a {@link User} evicts its cache entry
+ * once the transaction has committed, so a concurrent lookup cannot
+ * put the old row back in the meantime.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheEvictionListener {
+
+    private final CacheManager cacheManager;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onUserWrite(User user) {
+        String username = user.getUsername();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(username);
+                }
+            });
+        } else {
+            evict(username);
+        }
+    }
+
+    private void evict(String username) {
+        Cache cache = cacheManager.getCache(CustomUserDetailsService.USERS_CACHE);
+        if (cache != null) {
+            cache.evict(username);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+-- Schema created by ddl-auto=update before the switch to versioned migrations.
+-- Databases created that way are baselined at this version instead of running it;
+-- the migrations after it bring both kinds of database to the current schema.
+
+CREATE TABLE users (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at DATETIME(6)  NOT NULL,
+    updated_at DATETIME(6),
+    password   VARCHAR(255) NOT NULL,
+    role       ENUM ('ADMIN', 'USER'),
+    username   VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE orders (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at  DATETIME(6)  NOT NULL,
+    updated_at  DATETIME(6),
+    description VARCHAR(255),
+    status      VARCHAR(255),
+    user_id     BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE blacklisted_tokens (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at     DATETIME(6)  NOT NULL,
+    updated_at     DATETIME(6),
+    blacklisted_at DATETIME(6)  NOT NULL,
+    token          VARCHAR(512) NOT NULL,
+    username       VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_blacklisted_tokens_token UNIQUE (token)
+) ENGINE = InnoDB;
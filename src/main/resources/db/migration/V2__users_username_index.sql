@@ -0,0 +1,2 @@
+-- Every login and authenticated request looks users up by name
+CREATE UNIQUE INDEX uk_users_username ON users (username);
@@ -0,0 +1,11 @@
+-- Table-backed sequences for the pooled id generators (allocation size 50), starting past the ids
+-- already assigned by AUTO_INCREMENT. The AUTO_INCREMENT attribute stays but is no longer used.
+
+CREATE TABLE users_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO users_seq SELECT COALESCE(MAX(id), 0) + 1 FROM users;
+
+CREATE TABLE orders_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO orders_seq SELECT COALESCE(MAX(id), 0) + 1 FROM orders;
+
+CREATE TABLE blacklisted_tokens_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO blacklisted_tokens_seq SELECT COALESCE(MAX(id), 0) + 1 FROM blacklisted_tokens;
@@ -0,0 +1,28 @@
+-- Order status is stored as the OrderStatus code instead of free text:
+-- PENDING=1, PROCESSING=2, COMPLETED=3, CANCELLED=4, NULL stays NULL.
+
+-- Refuse to convert a status that has no code rather than losing it. Any such row violates the check
+-- below, which fails this migration before the orders table is touched. Correct or clear those
+-- statuses, remove the failed entry from flyway_schema_history and start the application again.
+CREATE TEMPORARY TABLE unmapped_order_statuses (
+    status VARCHAR(255),
+    CONSTRAINT chk_order_status_has_code CHECK (status IS NULL)
+);
+INSERT INTO unmapped_order_statuses (status)
+SELECT DISTINCT status
+FROM orders
+WHERE status IS NOT NULL
+  AND UPPER(TRIM(status)) NOT IN ('PENDING', 'PROCESSING', 'COMPLETED', 'CANCELLED');
+DROP TEMPORARY TABLE unmapped_order_statuses;
+
+ALTER TABLE orders ADD COLUMN status_code SMALLINT;
+UPDATE orders
+SET status_code = CASE UPPER(TRIM(status))
+    WHEN 'PENDING' THEN 1
+    WHEN 'PROCESSING' THEN 2
+    WHEN 'COMPLETED' THEN 3
+    WHEN 'CANCELLED' THEN 4
+END
+WHERE status IS NOT NULL;
+ALTER TABLE orders DROP COLUMN status;
+ALTER TABLE orders RENAME COLUMN status_code TO status;
@@ -0,0 +1,2 @@
+-- Optimistic locking and ETags: existing orders start at version 0
+ALTER TABLE orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
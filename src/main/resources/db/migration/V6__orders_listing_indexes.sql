@@ -0,0 +1,4 @@
+-- Owner listings sorted by creation time, with id as the keyset tie-breaker
+CREATE INDEX idx_orders_user_created ON orders (user_id, created_at, id);
+-- Owner listings filtered by status, sorted by creation time
+CREATE INDEX idx_orders_user_status_created ON orders (user_id, status, created_at);
@@ -0,0 +1,30 @@
+-- Revoked tokens are stored as their SHA-256 digest with the token's expiry, so the unique index stays
+-- fixed-size and expired rows can be purged. The table is rebuilt around token_hash.
+
+CREATE TABLE blacklisted_tokens_hashed (
+    id             BIGINT       NOT NULL,
+    token_hash     VARCHAR(64)  NOT NULL,
+    username       VARCHAR(255) NOT NULL,
+    blacklisted_at DATETIME(6)  NOT NULL,
+    expires_at     DATETIME(6)  NOT NULL,
+    created_at     DATETIME(6)  NOT NULL,
+    updated_at     DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_blacklisted_tokens_token_hash UNIQUE (token_hash)
+) ENGINE = InnoDB;
+
+-- A token was issued before it was revoked, so it expires at the latest jwt.expiration after that
+INSERT INTO blacklisted_tokens_hashed (id, token_hash, username, blacklisted_at, expires_at, created_at, updated_at)
+SELECT id,
+       SHA2(token, 256),
+       username,
+       blacklisted_at,
+       DATE_ADD(blacklisted_at, INTERVAL ${jwt-expiration-ms} * 1000 MICROSECOND),
+       created_at,
+       updated_at
+FROM blacklisted_tokens;
+
+DROP TABLE blacklisted_tokens;
+RENAME TABLE blacklisted_tokens_hashed TO blacklisted_tokens;
+
+CREATE INDEX idx_blacklisted_tokens_expires_at ON blacklisted_tokens (expires_at);
@@ -0,0 +1,14 @@
+-- Per user and status order counts, maintained by the application with every order write.
+-- Status 0 counts orders without a status.
+CREATE TABLE order_status_counts (
+    user_id     BIGINT   NOT NULL,
+    status      SMALLINT NOT NULL,
+    order_count BIGINT   NOT NULL,
+    PRIMARY KEY (user_id, status),
+    CONSTRAINT fk_order_status_counts_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+INSERT INTO order_status_counts (user_id, status, order_count)
+SELECT user_id, COALESCE(status, 0), COUNT(*)
+FROM orders
+GROUP BY user_id, COALESCE(status, 0);
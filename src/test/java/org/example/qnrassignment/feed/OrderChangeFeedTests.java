@@ -0,0 +1,47 @@
+package org.example.qnrassignment.feed;
+
+import org.example.qnrassignment.service.TokenBlacklistService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class OrderChangeFeedTests {
+
+    private final OrderChangeFeed feed = new OrderChangeFeed(
+            mock(TokenBlacklistService.class), 1, 10, 16, 16, Duration.ofMinutes(30));
+
+    @AfterEach
+    void shutDown() {
+        feed.destroy();
+    }
+
+    @Test
+    void feedTimesOutWhenItsTokenExpires() {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+
+        SseEmitter emitter = feed.subscribe(1L, "token-hash", expiresAt, null);
+
+        // Allow for the time between computing the expiry and opening the feed
+        assertEquals(60_000d, emitter.getTimeout(), 1_000d);
+    }
+
+    @Test
+    void heartbeatCompletesFeedWhoseTokenHasExpired() {
+        SseEmitter expired = feed.subscribe(1L, "expired-hash", Instant.now().minusSeconds(1), null);
+        SseEmitter valid = feed.subscribe(1L, "valid-hash", Instant.now().plusSeconds(3600), null);
+
+        feed.sendHeartbeats();
+
+        // A completed emitter refuses further events
+        assertThrows(IllegalStateException.class, () -> expired.send("event"));
+        assertDoesNotThrow(() -> valid.send("event"));
+    }
+}
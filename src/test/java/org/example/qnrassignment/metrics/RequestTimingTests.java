@@ -0,0 +1,46 @@
+package org.example.qnrassignment.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestTimingTests {
+
+    @AfterEach
+    void stopTiming() {
+        RequestTiming.stop();
+    }
+
+    @Test
+    void recordingIsIgnoredWhenTheRequestIsNotTimed() {
+        RequestTiming.recordAuth(1_000_000);
+        RequestTiming.recordStatement(1_000_000);
+        RequestTiming.markSerialization();
+
+        assertNull(RequestTiming.current());
+    }
+
+    @Test
+    void headerListsEveryPhase() {
+        RequestTiming timing = RequestTiming.start();
+        assertSame(timing, RequestTiming.current());
+
+        RequestTiming.recordAuth(1_500_000);
+        timing.enterService();
+        timing.enterService();
+        RequestTiming.recordStatement(2_000_000);
+        RequestTiming.recordStatement(250_000);
+        timing.exitService();
+        timing.exitService();
+        RequestTiming.markSerialization();
+
+        String header = timing.toHeader();
+
+        assertTrue(header.startsWith("auth;dur=1.500, db;dur=2.250;desc=\"2 statements\", service;dur="), header);
+        assertTrue(header.contains(", serialization;dur="), header);
+        assertTrue(header.contains(", total;dur="), header);
+    }
+}
@@ -0,0 +1,179 @@
+package org.example.qnrassignment.repository;
+
+import org.example.qnrassignment.core.enums.OrderStatus;
+import org.example.qnrassignment.core.enums.Role;
+import org.example.qnrassignment.model.Order;
+import org.example.qnrassignment.model.User;
+import org.example.qnrassignment.service.OrderService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mysql.MySQLContainer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Captures the SQL Hibernate generates for the listing queries and checks
+ * its plan on MySQL, against the indexes created by the Flyway migrations.
+ */
+@SpringBootTest(properties = {
+        "jwt.secret-key=dGVzdC1zZWNyZXQta2V5LWZvci10aGUtdGVzdC1wcm9maWxlLW9ubHkh",
+        "management.server.port=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "org.example.qnrassignment.repository.OrderIndexPlanTests$CapturingStatementInspector"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class OrderIndexPlanTests {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer mysql = new MySQLContainer("mysql:8.4");
+
+    /**
+     * Default listing request of the controller: first page of 10, newest first
+     */
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+    /**
+     * Default cursor request, newest first. The first page carries the ORDER BY
+     * that every page uses; later pages only add a range on the same keys.
+     */
+    private static final Sort KEYSET_SORT = OrderService.keysetSort("createdAt", Sort.Direction.DESC);
+    private static final int KEYSET_SIZE = 10;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void seedOrders() {
+        String username = "plan_user";
+        User user = userRepository.findByUsername(username).orElseGet(() -> userRepository.save(User.builder()
+                .username(username)
+                .password("secret")
+                .role(Role.USER)
+                .build()));
+        userId = user.getId();
+
+        if (orderRepository.countByUser(user) == 0) {
+            OrderStatus[] statuses = OrderStatus.values();
+            List<Order> orders = IntStream.range(0, 500)
+                    .mapToObj(i -> Order.builder()
+                            .description("Plan order " + i)
+                            .status(statuses[i % statuses.length])
+                            .user(user)
+                            .build())
+                    .toList();
+            orderRepository.saveAll(orders);
+        }
+        jdbcTemplate.execute("ANALYZE TABLE orders");
+    }
+
+    @Test
+    void userListingUsesUserCreatedIndex() {
+        CapturingStatementInspector.STATEMENTS.clear();
+        orderRepository.findDtosByUserId(userId, FIRST_PAGE);
+
+        List<Map<String, Object>> plan = explain(pageQuery(), userId, FIRST_PAGE.getPageSize());
+
+        assertUsesIndex(plan, "idx_orders_user_created");
+    }
+
+    @Test
+    void statusListingUsesUserStatusCreatedIndex() {
+        CapturingStatementInspector.STATEMENTS.clear();
+        orderRepository.findDtosByUserIdAndStatus(userId, OrderStatus.PENDING, FIRST_PAGE);
+
+        List<Map<String, Object>> plan = explain(pageQuery(),
+                userId, OrderStatus.PENDING.getCode(), FIRST_PAGE.getPageSize());
+
+        assertUsesIndex(plan, "idx_orders_user_status_created");
+    }
+
+    @Test
+    void keysetListingUsesUserCreatedIndex() {
+        CapturingStatementInspector.STATEMENTS.clear();
+        orderRepository.findByUserId(userId, ScrollPosition.keyset(), KEYSET_SORT, Limit.of(KEYSET_SIZE));
+
+        // The window reads one row more than its size to know whether there is a next page
+        List<Map<String, Object>> plan = explain(pageQuery(), userId, KEYSET_SIZE + 1);
+
+        assertUsesIndex(plan, "idx_orders_user_created");
+    }
+
+    @Test
+    void keysetStatusListingUsesUserStatusCreatedIndex() {
+        CapturingStatementInspector.STATEMENTS.clear();
+        orderRepository.findByUserIdAndStatus(userId, OrderStatus.PENDING, ScrollPosition.keyset(), KEYSET_SORT,
+                Limit.of(KEYSET_SIZE));
+
+        List<Map<String, Object>> plan = explain(pageQuery(),
+                userId, OrderStatus.PENDING.getCode(), KEYSET_SIZE + 1);
+
+        assertUsesIndex(plan, "idx_orders_user_status_created");
+    }
+
+    /**
+     * @return the page query of the last repository call, its count query is issued after it
+     */
+    private static String pageQuery() {
+        return CapturingStatementInspector.STATEMENTS.stream()
+                .filter(sql -> sql.contains(" limit "))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No page query in " + CapturingStatementInspector.STATEMENTS));
+    }
+
+    private List<Map<String, Object>> explain(String sql, Object... parameters) {
+        assertEquals(parameters.length, sql.chars().filter(c -> c == '?').count(), sql);
+        return jdbcTemplate.queryForList("EXPLAIN " + sql, parameters);
+    }
+
+    private static void assertUsesIndex(List<Map<String, Object>> plan, String index) {
+        Map<String, Object> orders = plan.stream()
+                .filter(row -> Objects.equals(row.get("key"), index))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(index + " not used: " + plan));
+        assertFalse(String.valueOf(orders.get("Extra")).contains("filesort"), plan.toString());
+        assertTrue(plan.stream().noneMatch(row -> "ALL".equals(row.get("type"))), plan.toString());
+    }
+
+    /**
+     * Records every statement Hibernate prepares, unchanged.
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
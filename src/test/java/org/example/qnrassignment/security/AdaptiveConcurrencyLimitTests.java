@@ -0,0 +1,64 @@
+package org.example.qnrassignment.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.qnrassignment.security.AdaptiveConcurrencyLimit.RequestClass;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class AdaptiveConcurrencyLimitTests {
+
+    @Test
+    void expensiveRequestsOnlyGetTheirShareOfTheLimit() {
+        AdaptiveConcurrencyLimit limit = limit(Duration.ofSeconds(1));
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limit.tryAcquire(RequestClass.EXPENSIVE));
+        }
+        assertFalse(limit.tryAcquire(RequestClass.EXPENSIVE));
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limit.tryAcquire(RequestClass.STANDARD));
+        }
+        assertFalse(limit.tryAcquire(RequestClass.STANDARD));
+    }
+
+    @Test
+    void slowStandardRequestsShrinkTheLimitAndFastOnesGrowIt() {
+        AdaptiveConcurrencyLimit slow = limit(Duration.ZERO);
+        assertTrue(slow.tryAcquire(RequestClass.STANDARD));
+        slow.release(RequestClass.STANDARD, 1_000_000);
+        assertEquals(9.0, slow.getLimit(), 0.001);
+
+        AdaptiveConcurrencyLimit fast = limit(Duration.ofSeconds(1));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(fast.tryAcquire(RequestClass.STANDARD));
+        }
+        fast.release(RequestClass.STANDARD, 1_000_000);
+        assertTrue(fast.getLimit() > 10.0);
+    }
+
+    @Test
+    void slowBatchAndLoginRequestsDoNotShrinkTheLimit() {
+        AdaptiveConcurrencyLimit limit = limit(Duration.ZERO);
+
+        for (int i = 0; i < 20; i++) {
+            RequestClass requestClass = i % 2 == 0 ? RequestClass.EXPENSIVE : RequestClass.AUTH;
+            assertTrue(limit.tryAcquire(requestClass));
+            limit.release(requestClass, Duration.ofSeconds(2).toNanos());
+        }
+
+        assertEquals(10.0, limit.getLimit(), 0.001);
+    }
+
+    private static AdaptiveConcurrencyLimit limit(Duration latencyThreshold) {
+        return new AdaptiveConcurrencyLimit(mock(DataSource.class), new SimpleMeterRegistry(),
+                10, 2, 100, 0.9, 0.5, latencyThreshold);
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.qnrassignment.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTests {
+
+    @Test
+    void burstIsLimitedToCapacityPerCaller() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("rate-limit.search.capacity", "3")
+                .withProperty("rate-limit.search.refill-per-second", "0.001");
+        RateLimiter rateLimiter = new RateLimiter(environment, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(RateLimitGroup.SEARCH, 1L));
+        }
+        long waitNanos = rateLimiter.tryAcquire(RateLimitGroup.SEARCH, 1L);
+
+        assertTrue(waitNanos > 0);
+        // Other callers and other groups have their own buckets
+        assertEquals(0, rateLimiter.tryAcquire(RateLimitGroup.SEARCH, 2L));
+        assertEquals(0, rateLimiter.tryAcquire(RateLimitGroup.DEFAULT, 1L));
+    }
+
+    @Test
+    void evictionKeepsBucketsThatAreNotFull() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("rate-limit.batch.capacity", "1")
+                .withProperty("rate-limit.batch.refill-per-second", "0.001");
+        RateLimiter rateLimiter = new RateLimiter(environment, new SimpleMeterRegistry());
+
+        assertEquals(0, rateLimiter.tryAcquire(RateLimitGroup.BATCH, "10.0.0.1"));
+        rateLimiter.evictIdle();
+
+        assertTrue(rateLimiter.tryAcquire(RateLimitGroup.BATCH, "10.0.0.1") > 0);
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.qnrassignment.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenRevocationCacheTests {
+
+    @Test
+    void revocationDuringTheDatabaseLoadSurvivesTheRebuild() {
+        TokenRevocationCache cache = new TokenRevocationCache(100, 100, 0.01);
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+
+        cache.rebuild(() -> {
+            // Committed after the rows were read, so it is missing from the loaded map
+            cache.revoke("revoked-while-loading", expiresAt);
+            return Map.of("loaded", expiresAt);
+        });
+
+        assertEquals(TokenRevocationCache.Verdict.REVOKED, cache.check("revoked-while-loading"));
+        assertEquals(TokenRevocationCache.Verdict.REVOKED, cache.check("loaded"));
+    }
+
+    @Test
+    void failedLoadKeepsThePreviousSnapshot() {
+        TokenRevocationCache cache = new TokenRevocationCache(100, 100, 0.01);
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        cache.rebuild(() -> Map.of("loaded", expiresAt));
+
+        assertThrows(IllegalStateException.class, () -> cache.rebuild(() -> {
+            throw new IllegalStateException("database unavailable");
+        }));
+        cache.revoke("revoked-after-failure", expiresAt);
+
+        assertEquals(TokenRevocationCache.Verdict.REVOKED, cache.check("loaded"));
+        assertEquals(TokenRevocationCache.Verdict.REVOKED, cache.check("revoked-after-failure"));
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.qnrassignment.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.qnrassignment.core.enums.Role;
+import org.example.qnrassignment.dto.CreateOrderDTO;
+import org.example.qnrassignment.dto.OrderBatchResultDTO;
+import org.example.qnrassignment.model.User;
+import org.example.qnrassignment.repository.UserRepository;
+import org.example.qnrassignment.security.JwtPrincipal;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderBatchServiceTests {
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void insertsAreSentAsJdbcBatches() {
+        User user = userRepository.save(User.builder()
+                .username("batch_user")
+                .password("secret")
+                .role(Role.USER)
+                .build());
+        List<CreateOrderDTO> orders = IntStream.range(0, 200)
+                .mapToObj(i -> CreateOrderDTO.builder()
+                        .description("Order " + i)
+                        .status("PENDING")
+                        .build())
+                .toList();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        OrderBatchResultDTO result = orderBatchService.createOrders(
+                orders, new JwtPrincipal(user.getId(), user.getUsername(), user.getRole()));
+
+        assertEquals(200, result.getCreated());
+        assertEquals(200, statistics.getEntityInsertCount());
+        // One prepared insert per JDBC batch plus a few sequence calls, instead of one statement per row
+        assertTrue(statistics.getPrepareStatementCount() < 20,
+                "Expected batched inserts but " + statistics.getPrepareStatementCount() + " statements were prepared");
+    }
+
+    @Test
+    void oversizedBatchIsRejectedBeforeTheRestIsRead() {
+        String item = "{\"description\":\"Order\",\"status\":\"PENDING\"}";
+        // One item over the default cap of 10000, followed by a body that would not even parse
+        String body = "[" + String.join(",", Collections.nCopies(10_001, item)) + ", {not json";
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () ->
+                orderBatchService.readBatch(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))));
+
+        assertEquals("A batch can contain at most 10000 orders", error.getMessage());
+    }
+
+    @Test
+    void batchIsReadInRequestOrder() {
+        String body = "[{\"description\":\"First\",\"status\":\"PENDING\"},{\"description\":\"Second\"}]";
+
+        List<CreateOrderDTO> orders = orderBatchService.readBatch(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of("First", "Second"), orders.stream().map(CreateOrderDTO::getDescription).toList());
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.qnrassignment.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderExportServiceTests {
+
+    @Test
+    void formulaPrefixesAreNeutralized() {
+        assertEquals("'=1+1", OrderExportService.csvField("=1+1"));
+        assertEquals("\"'=HYPERLINK(\"\"http://example.com\"\")\"",
+                OrderExportService.csvField("=HYPERLINK(\"http://example.com\")"));
+        assertEquals("'+1", OrderExportService.csvField("+1"));
+        assertEquals("'-1", OrderExportService.csvField("-1"));
+        assertEquals("'@SUM(A1)", OrderExportService.csvField("@SUM(A1)"));
+        assertEquals("'\tcmd", OrderExportService.csvField("\tcmd"));
+        assertEquals("\"'\rcmd\"", OrderExportService.csvField("\rcmd"));
+    }
+
+    @Test
+    void plainAndSeparatedFieldsAreUnchangedOrQuoted() {
+        assertEquals("", OrderExportService.csvField(null));
+        assertEquals("Order 1", OrderExportService.csvField("Order 1"));
+        assertEquals("a=b", OrderExportService.csvField("a=b"));
+        assertEquals("\"one, two\"", OrderExportService.csvField("one, two"));
+        assertEquals("\"'=1,2\"", OrderExportService.csvField("=1,2"));
+    }
+}
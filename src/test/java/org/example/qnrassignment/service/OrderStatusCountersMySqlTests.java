@@ -0,0 +1,137 @@
+package org.example.qnrassignment.service;
+
+import org.example.qnrassignment.core.enums.OrderStatus;
+import org.example.qnrassignment.core.enums.Role;
+import org.example.qnrassignment.core.exceptions.ServiceUnavailableException;
+import org.example.qnrassignment.dto.CreateOrderDTO;
+import org.example.qnrassignment.dto.OrderDTO;
+import org.example.qnrassignment.dto.OrderSummaryDTO;
+import org.example.qnrassignment.dto.UpdateOrderDTO;
+import org.example.qnrassignment.model.User;
+import org.example.qnrassignment.repository.OrderRepository;
+import org.example.qnrassignment.repository.UserRepository;
+import org.example.qnrassignment.security.JwtPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mysql.MySQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the status counters on MySQL with the Flyway schema, where the
+ * {@code ON DUPLICATE KEY UPDATE} upsert and the conditional order writes
+ * behave as in production.
+ */
+@SpringBootTest(properties = {
+        "jwt.secret-key=dGVzdC1zZWNyZXQta2V5LWZvci10aGUtdGVzdC1wcm9maWxlLW9ubHkh",
+        "management.server.port=-1",
+        "spring.jpa.show-sql=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class OrderStatusCountersMySqlTests {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer mysql = new MySQLContainer("mysql:8.4");
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    void countersFollowCreateUpdateDeleteAndBatch() {
+        JwtPrincipal user = createUser("mysql_summary_user");
+
+        OrderDTO first = orderService.createOrder(create("First", "PENDING"), user);
+        orderService.createOrder(create("Second", "PENDING"), user);
+        OrderDTO third = orderService.createOrder(create("Third", "PROCESSING"), user);
+
+        orderService.updateOrder(first.getId(), update("First", "COMPLETED"), user, null);
+        orderService.deleteOrder(third.getId(), user);
+        orderBatchService.createOrders(List.of(create("Fourth", "PENDING"), create("Fifth", "CANCELLED")), user);
+
+        OrderSummaryDTO summary = orderService.getOrderSummary(user);
+
+        assertEquals(4, summary.getTotal());
+        assertEquals(2L, summary.getByStatus().get(OrderStatus.PENDING));
+        assertEquals(0L, summary.getByStatus().get(OrderStatus.PROCESSING));
+        assertEquals(1L, summary.getByStatus().get(OrderStatus.COMPLETED));
+        assertEquals(1L, summary.getByStatus().get(OrderStatus.CANCELLED));
+    }
+
+    @Test
+    void countersStayExactUnderConcurrentStatusChanges() throws Exception {
+        JwtPrincipal user = createUser("mysql_concurrent_user");
+        OrderDTO order = orderService.createOrder(create("Contended", "PENDING"), user);
+        OrderStatus[] statuses = OrderStatus.values();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> updates = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                String status = statuses[i % statuses.length].name();
+                updates.add(executor.submit(() -> {
+                    try {
+                        orderService.updateOrder(order.getId(), update("Contended", status), user, null);
+                    } catch (ServiceUnavailableException e) {
+                        // Lost every attempt to other writers, which is allowed
+                    }
+                }));
+            }
+            for (Future<?> update : updates) {
+                update.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        OrderStatus finalStatus = orderRepository.findDtoById(order.getId()).orElseThrow().getStatus();
+        OrderSummaryDTO summary = orderService.getOrderSummary(user);
+
+        assertEquals(1, summary.getTotal());
+        for (OrderStatus status : statuses) {
+            assertEquals(status == finalStatus ? 1L : 0L, summary.getByStatus().get(status));
+        }
+    }
+
+    private JwtPrincipal createUser(String username) {
+        User owner = userRepository.save(User.builder()
+                .username(username)
+                .password("secret")
+                .role(Role.USER)
+                .build());
+        return new JwtPrincipal(owner.getId(), owner.getUsername(), owner.getRole());
+    }
+
+    private static CreateOrderDTO create(String description, String status) {
+        return CreateOrderDTO.builder()
+                .description(description)
+                .status(status)
+                .build();
+    }
+
+    private static UpdateOrderDTO update(String description, String status) {
+        return UpdateOrderDTO.builder()
+                .description(description)
+                .status(status)
+                .build();
+    }
+}